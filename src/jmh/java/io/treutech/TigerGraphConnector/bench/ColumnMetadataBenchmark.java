@@ -0,0 +1,126 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench;
+
+import io.treutech.TigerGraphConnector.util.ColumnDefinition;
+import io.treutech.TigerGraphConnector.util.ColumnId;
+import io.treutech.TigerGraphConnector.util.TGResourceUtils;
+import io.treutech.TigerGraphConnector.util.TableId;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Describing every column of a wide result set: through a reflective method lookup per attribute as the
+ * source did before, and through direct {@link ResultSetMetaData} calls.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="-prof gc -f 1 ColumnMetadataBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ColumnMetadataBenchmark {
+  @Param({"16", "64", "256"})
+  public int attributes;
+
+  @Param({"STRING", "MIXED"})
+  public Fixtures.TypeMix mix;
+
+  private ResultSetMetaData metadata;
+
+  @Setup
+  public void setup() throws SQLException {
+    this.metadata = Fixtures.resultSet(this.attributes, this.mix, 0).getMetaData();
+  }
+
+  @Benchmark
+  public List<Pair<ColumnId, ColumnDefinition>> reflective() throws SQLException {
+    final int columnCount = this.metadata.getColumnCount();
+    final List<Pair<ColumnId, ColumnDefinition>> result = new ArrayList<>(columnCount);
+    for (int i = 1; i <= columnCount; ++i) {
+      final ColumnDefinition def = LegacyDescriber.describeColumn(this.metadata, i);
+      result.add(Pair.of(def.getId(), def));
+    }
+    return result;
+  }
+
+  @Benchmark
+  public List<Pair<ColumnId, ColumnDefinition>> direct() {
+    return TGResourceUtils.describeColumns(this.metadata);
+  }
+
+  /**
+   * The reflective column description the source used before, kept verbatim as the baseline.
+   */
+  private static final class LegacyDescriber {
+    private static String emptyOnException(final Object o, final String method, final int column) {
+      try {
+        return (String) o.getClass().getMethod(method, int.class).invoke(o, column);
+      } catch (Exception e) {
+        return "";
+      }
+    }
+
+    private static int zeroOnException(final Object o, final String method, final int column) {
+      try {
+        return (int) o.getClass().getMethod(method, int.class).invoke(o, column);
+      } catch (Exception e) {
+        return 0;
+      }
+    }
+
+    private static boolean falseOnException(final Object o, final String method, final int column) {
+      try {
+        return (boolean) o.getClass().getMethod(method, int.class).invoke(o, column);
+      } catch (Exception e) {
+        return false;
+      }
+    }
+
+    static ColumnDefinition describeColumn(final ResultSetMetaData rsMetadata, final int column) {
+      final TableId tableId = new TableId(
+          emptyOnException(rsMetadata, "getCatalogName", column),
+          emptyOnException(rsMetadata, "getSchemaName", column),
+          emptyOnException(rsMetadata, "getTableName", column));
+      final ColumnId id = new ColumnId(
+          tableId,
+          emptyOnException(rsMetadata, "getColumnName", column),
+          emptyOnException(rsMetadata, "getColumnLabel", column));
+      return new ColumnDefinition(
+          id,
+          zeroOnException(rsMetadata, "getColumnType", column),
+          emptyOnException(rsMetadata, "getColumnTypeName", column),
+          emptyOnException(rsMetadata, "getColumnClassName", column),
+          zeroOnException(rsMetadata, "getPrecision", column),
+          zeroOnException(rsMetadata, "getScale", column),
+          zeroOnException(rsMetadata, "getColumnDisplaySize", column),
+          falseOnException(rsMetadata, "isAutoIncrement", column),
+          false,
+          falseOnException(rsMetadata, "isSigned", column));
+    }
+  }
+}
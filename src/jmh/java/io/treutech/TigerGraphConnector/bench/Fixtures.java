@@ -0,0 +1,193 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench;
+
+import io.treutech.TigerGraphConnector.sink.TGSinkConfig;
+import io.treutech.TigerGraphConnector.source.TGSourceConfig;
+import io.treutech.TigerGraphConnector.util.TGConfigException;
+import io.treutech.TigerGraphConnector.util.Temporals;
+
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+/**
+ * Synthetic vertex records and result sets for the benchmarks: a type and an id column followed by
+ * attribute columns, either all strings or cycling through string, int, long, double, boolean and datetime.
+ */
+public final class Fixtures {
+  private static final long EPOCH_MILLIS = 1650000000000L;
+
+  public enum TypeMix {
+    STRING,
+    MIXED
+  }
+
+  public enum Format {
+    STRUCT,
+    SCHEMALESS
+  }
+
+  private Fixtures() {
+  }
+
+  public static TGSinkConfig sinkConfig() throws TGConfigException {
+    return new TGSinkConfig(connectionProps());
+  }
+
+  public static TGSourceConfig sourceConfig() throws TGConfigException {
+    final Map<String, String> props = connectionProps();
+    props.put("tigergraph.source.query", "run bench(pattern)");
+    props.put("tigergraph.source.query.pattern", "r=?");
+    props.put("tigergraph.source.args", "0");
+    return new TGSourceConfig(props);
+  }
+
+  private static Map<String, String> connectionProps() {
+    final Map<String, String> props = new HashMap<>();
+    props.put("tigergraph.ip", "localhost");
+    props.put("tigergraph.port", "14240");
+    props.put("tigergraph.graph", "bench");
+    props.put("tigergraph.username", "tigergraph");
+    props.put("tigergraph.password", "tigergraph");
+    return props;
+  }
+
+  /**
+   * The kind of the attribute column, 0 to 5 for string, int, long, double, boolean and datetime.
+   */
+  private static int kind(final TypeMix mix, final int attribute) {
+    return mix == TypeMix.STRING ? 0 : attribute % 6;
+  }
+
+  private static String name(final int attribute) {
+    return "attr" + attribute;
+  }
+
+  public static Schema valueSchema(final int attributes, final TypeMix mix) {
+    final SchemaBuilder builder = SchemaBuilder.struct().name("person")
+        .field("v_type", Schema.STRING_SCHEMA)
+        .field("v_id", Schema.STRING_SCHEMA);
+    for (int i = 0; i < attributes; i++) {
+      switch (kind(mix, i)) {
+        case 1:
+          builder.field(name(i), Schema.INT32_SCHEMA);
+          break;
+        case 2:
+          builder.field(name(i), Schema.INT64_SCHEMA);
+          break;
+        case 3:
+          builder.field(name(i), Schema.FLOAT64_SCHEMA);
+          break;
+        case 4:
+          builder.field(name(i), Schema.BOOLEAN_SCHEMA);
+          break;
+        case 5:
+          builder.field(name(i), org.apache.kafka.connect.data.Timestamp.SCHEMA);
+          break;
+        default:
+          builder.field(name(i), Schema.STRING_SCHEMA);
+          break;
+      }
+    }
+    return builder.build();
+  }
+
+  public static SinkRecord record(final Format format,
+                                  final Schema schema,
+                                  final int attributes,
+                                  final TypeMix mix,
+                                  final int n) {
+    if (format == Format.STRUCT) {
+      final Struct value = new Struct(schema).put("v_type", "person").put("v_id", "p-" + n);
+      for (int i = 0; i < attributes; i++) {
+        value.put(name(i), structValue(kind(mix, i), n));
+      }
+      return new SinkRecord("persons", 0, null, null, schema, value, n);
+    }
+    final Map<String, Object> value = new LinkedHashMap<>();
+    value.put("v_type", "person");
+    value.put("v_id", "p-" + n);
+    for (int i = 0; i < attributes; i++) {
+      final Object attribute = structValue(kind(mix, i), n);
+      value.put(name(i), attribute instanceof java.util.Date ? "2022-04-15 05:20:00" : attribute);
+    }
+    return new SinkRecord("persons", 0, null, null, null, value, n);
+  }
+
+  private static Object structValue(final int kind, final int n) {
+    switch (kind) {
+      case 1:
+        return n;
+      case 2:
+        return (long) n << 20;
+      case 3:
+        return n * 0.5d;
+      case 4:
+        return n % 2 == 0;
+      case 5:
+        return new java.util.Date(EPOCH_MILLIS + n * 1000L);
+      default:
+        return "value-" + n;
+    }
+  }
+
+  /**
+   * A result set of vertex rows shaped like the output of an installed query printing vertex attributes.
+   */
+  public static SyntheticResultSet resultSet(final int attributes, final TypeMix mix, final int rows) {
+    final String[] names = new String[attributes + 1];
+    final int[] types = new int[attributes + 1];
+    names[0] = "v_id";
+    types[0] = Types.VARCHAR;
+    for (int i = 0; i < attributes; i++) {
+      names[i + 1] = name(i);
+      types[i + 1] = sqlType(kind(mix, i));
+    }
+    final Object[][] values = new Object[rows][];
+    for (int r = 0; r < rows; r++) {
+      values[r] = new Object[attributes + 1];
+      values[r][0] = "p-" + r;
+      for (int i = 0; i < attributes; i++) {
+        final Object value = structValue(kind(mix, i), r);
+        // the driver hands out DATETIME values as the strings TigerGraph returns
+        values[r][i + 1] = value instanceof java.util.Date ? Temporals.formatDateTime((java.util.Date) value) : value;
+      }
+    }
+    return new SyntheticResultSet(new SyntheticResultSetMetaData(names, types), values);
+  }
+
+  private static int sqlType(final int kind) {
+    switch (kind) {
+      case 1:
+        return Types.INTEGER;
+      case 2:
+        return Types.BIGINT;
+      case 3:
+        return Types.DOUBLE;
+      case 4:
+        return Types.BOOLEAN;
+      case 5:
+        return Types.TIMESTAMP;
+      default:
+        return Types.VARCHAR;
+    }
+  }
+}
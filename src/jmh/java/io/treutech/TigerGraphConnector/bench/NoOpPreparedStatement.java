@@ -0,0 +1,509 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench;
+
+import java.sql.SQLException;
+
+/**
+ * PreparedStatement that discards everything, so benchmarks measure the connector and not a driver.
+ * Bound values are folded into public fields to stop the JIT from eliminating the binding work.
+ */
+public class NoOpPreparedStatement implements java.sql.PreparedStatement {
+  public Object sink;
+  public long hash;
+  public int batches;
+
+  @Override
+  public void addBatch() throws SQLException {
+    this.batches++;
+  }
+
+  @Override
+  public void addBatch(final String arg0) throws SQLException {
+  }
+
+  @Override
+  public void cancel() throws SQLException {
+  }
+
+  @Override
+  public void clearBatch() throws SQLException {
+    this.batches = 0;
+  }
+
+  @Override
+  public void clearParameters() throws SQLException {
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {
+  }
+
+  @Override
+  public void close() throws SQLException {
+  }
+
+  @Override
+  public void closeOnCompletion() throws SQLException {
+  }
+
+  @Override
+  public boolean execute() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean execute(final String arg0, final int[] arg1) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean execute(final String arg0, final String[] arg1) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean execute(final String arg0, final int arg1) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean execute(final String arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public int[] executeBatch() throws SQLException {
+    final int[] result = new int[this.batches];
+    this.batches = 0;
+    return result;
+  }
+
+  @Override
+  public java.sql.ResultSet executeQuery() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.ResultSet executeQuery(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public int executeUpdate() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int executeUpdate(final String arg0, final int[] arg1) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int executeUpdate(final String arg0, final String[] arg1) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int executeUpdate(final String arg0, final int arg1) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int executeUpdate(final String arg0) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public java.sql.Connection getConnection() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public int getFetchDirection() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int getFetchSize() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public java.sql.ResultSet getGeneratedKeys() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public int getMaxFieldSize() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int getMaxRows() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public java.sql.ResultSetMetaData getMetaData() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public boolean getMoreResults() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean getMoreResults(final int arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public java.sql.ParameterMetaData getParameterMetaData() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public int getQueryTimeout() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public java.sql.ResultSet getResultSet() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public int getResultSetConcurrency() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int getResultSetHoldability() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int getResultSetType() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int getUpdateCount() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public java.sql.SQLWarning getWarnings() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public boolean isCloseOnCompletion() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isClosed() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isPoolable() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isWrapperFor(final Class<?> arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public void setArray(final int index, final java.sql.Array value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setAsciiStream(final int index, final java.io.InputStream value, final int extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setAsciiStream(final int index, final java.io.InputStream value, final long extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setAsciiStream(final int index, final java.io.InputStream value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setBigDecimal(final int index, final java.math.BigDecimal value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setBinaryStream(final int index, final java.io.InputStream value, final int extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setBinaryStream(final int index, final java.io.InputStream value, final long extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setBinaryStream(final int index, final java.io.InputStream value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setBlob(final int index, final java.io.InputStream value, final long extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setBlob(final int index, final java.io.InputStream value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setBlob(final int index, final java.sql.Blob value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setBoolean(final int index, final boolean value) throws SQLException {
+    this.hash += value ? 1 : 0;
+  }
+
+  @Override
+  public void setByte(final int index, final byte value) throws SQLException {
+    this.hash += (long) value;
+  }
+
+  @Override
+  public void setBytes(final int index, final byte[] value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setCharacterStream(final int index, final java.io.Reader value, final int extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setCharacterStream(final int index, final java.io.Reader value, final long extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setCharacterStream(final int index, final java.io.Reader value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setClob(final int index, final java.io.Reader value, final long extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setClob(final int index, final java.io.Reader value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setClob(final int index, final java.sql.Clob value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setCursorName(final String arg0) throws SQLException {
+  }
+
+  @Override
+  public void setDate(final int index, final java.sql.Date value, final java.util.Calendar extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setDate(final int index, final java.sql.Date value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setDouble(final int index, final double value) throws SQLException {
+    this.hash += (long) value;
+  }
+
+  @Override
+  public void setEscapeProcessing(final boolean arg0) throws SQLException {
+  }
+
+  @Override
+  public void setFetchDirection(final int index) throws SQLException {
+  }
+
+  @Override
+  public void setFetchSize(final int index) throws SQLException {
+  }
+
+  @Override
+  public void setFloat(final int index, final float value) throws SQLException {
+    this.hash += (long) value;
+  }
+
+  @Override
+  public void setInt(final int index, final int value) throws SQLException {
+    this.hash += (long) value;
+  }
+
+  @Override
+  public void setLong(final int index, final long value) throws SQLException {
+    this.hash += (long) value;
+  }
+
+  @Override
+  public void setMaxFieldSize(final int index) throws SQLException {
+  }
+
+  @Override
+  public void setMaxRows(final int index) throws SQLException {
+  }
+
+  @Override
+  public void setNCharacterStream(final int index, final java.io.Reader value, final long extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setNCharacterStream(final int index, final java.io.Reader value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setNClob(final int index, final java.io.Reader value, final long extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setNClob(final int index, final java.io.Reader value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setNClob(final int index, final java.sql.NClob value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setNString(final int index, final String value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setNull(final int index, final int value, final String extra) throws SQLException {
+    this.hash += (long) value;
+  }
+
+  @Override
+  public void setNull(final int index, final int value) throws SQLException {
+    this.hash += (long) value;
+  }
+
+  @Override
+  public void setObject(final int index, final Object value, final int extra, final int extra2) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setObject(final int index, final Object value, final int extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setObject(final int index, final Object value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setPoolable(final boolean arg0) throws SQLException {
+  }
+
+  @Override
+  public void setQueryTimeout(final int index) throws SQLException {
+  }
+
+  @Override
+  public void setRef(final int index, final java.sql.Ref value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setRowId(final int index, final java.sql.RowId value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setSQLXML(final int index, final java.sql.SQLXML value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setShort(final int index, final short value) throws SQLException {
+    this.hash += (long) value;
+  }
+
+  @Override
+  public void setString(final int index, final String value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setTime(final int index, final java.sql.Time value, final java.util.Calendar extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setTime(final int index, final java.sql.Time value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setTimestamp(final int index, final java.sql.Timestamp value, final java.util.Calendar extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setTimestamp(final int index, final java.sql.Timestamp value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setURL(final int index, final java.net.URL value) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public void setUnicodeStream(final int index, final java.io.InputStream value, final int extra) throws SQLException {
+    this.sink = value;
+  }
+
+  @Override
+  public <T> T unwrap(final Class<T> arg0) throws SQLException {
+    return null;
+  }
+}
@@ -0,0 +1,198 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench;
+
+import io.treutech.TigerGraphConnector.sink.PreparedStatementBinder;
+import io.treutech.TigerGraphConnector.sink.TGSinkConfig;
+import io.treutech.TigerGraphConnector.util.QueryBuilder;
+import io.treutech.TigerGraphConnector.util.TGConfigException;
+import io.treutech.TigerGraphConnector.util.WritePlan;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Binding one struct record with the compiled per-schema binders of a {@link WritePlan} against the
+ * per-field path the sink used before: a field lookup by name, a switch on the logical type name with a
+ * new Calendar, then a switch on the primitive type.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PreparedStatementBinderBenchmark {
+  private NoOpPreparedStatement statement;
+  private SinkRecord record;
+  private WritePlan plan;
+  private TGSinkConfig config;
+
+  @Setup
+  public void setup() throws TGConfigException {
+    final Map<String, String> props = new HashMap<>();
+    props.put("tigergraph.ip", "localhost");
+    props.put("tigergraph.port", "14240");
+    props.put("tigergraph.graph", "bench");
+    props.put("tigergraph.username", "tigergraph");
+    props.put("tigergraph.password", "tigergraph");
+    this.config = new TGSinkConfig(props);
+    final Schema schema = SchemaBuilder.struct().name("person")
+        .field("person_type", Schema.STRING_SCHEMA)
+        .field("person_id", Schema.STRING_SCHEMA)
+        .field("name", Schema.STRING_SCHEMA)
+        .field("age", Schema.INT32_SCHEMA)
+        .field("score", Schema.FLOAT32_SCHEMA)
+        .field("active", Schema.BOOLEAN_SCHEMA)
+        .field("city", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("created", org.apache.kafka.connect.data.Timestamp.SCHEMA)
+        .build();
+    final Struct value = new Struct(schema)
+        .put("person_type", "person")
+        .put("person_id", "p-0001")
+        .put("name", "Ada")
+        .put("age", 36)
+        .put("score", 0.93f)
+        .put("active", true)
+        .put("city", null)
+        .put("created", new java.util.Date(1650000000000L));
+    this.record = new SinkRecord("persons", 0, null, null, schema, value, 0L);
+    this.plan = QueryBuilder.buildWritePlan(this.record, this.config);
+    this.statement = new NoOpPreparedStatement();
+  }
+
+  @Benchmark
+  public NoOpPreparedStatement legacy() throws SQLException {
+    LegacyBinder.bindRecord(this.statement, this.record, this.plan.getFieldMetadata().nonKeyFieldNames);
+    return this.statement;
+  }
+
+  @Benchmark
+  public NoOpPreparedStatement compiled() throws SQLException {
+    new PreparedStatementBinder(this.statement, this.config.pkMode, this.plan)
+        .bindRecord(this.record);
+    return this.statement;
+  }
+
+  /**
+   * The binding path of the sink before binders were compiled per schema, kept verbatim as the baseline.
+   */
+  private static final class LegacyBinder {
+    static void bindRecord(final PreparedStatement statement,
+                           final SinkRecord record,
+                           final Iterable<String> nonKeyFieldNames) throws SQLException {
+      final Struct valueStruct = (Struct) record.value();
+      int index = 1;
+      for (final String fieldName : nonKeyFieldNames) {
+        final org.apache.kafka.connect.data.Field field = record.valueSchema().field(fieldName);
+        bindField(statement, index++, field.schema(), valueStruct.get(field));
+      }
+      statement.addBatch();
+    }
+
+    private static void bindField(final PreparedStatement statement,
+                                  final int index,
+                                  final Schema schema,
+                                  final Object value) throws SQLException {
+      if (value == null) {
+        statement.setObject(index, null);
+      } else {
+        boolean bound = bindLogical(statement, index, schema, value);
+        if (!bound) {
+          bound = bindPrimitive(statement, index, schema, value);
+        }
+        if (!bound) {
+          throw new ConnectException("Unsupported source data type: " + schema.type());
+        }
+      }
+    }
+
+    private static boolean bindLogical(final PreparedStatement statement,
+                                       final int index,
+                                       final Schema schema,
+                                       final Object value) throws SQLException {
+      if (schema.name() != null) {
+        Calendar cal = Calendar.getInstance();
+        switch (schema.name()) {
+          case "org.apache.kafka.connect.data.Date":
+            statement.setDate(index, new Date(((java.util.Date) value).getTime()), cal);
+            return true;
+          case "org.apache.kafka.connect.data.Decimal":
+            statement.setBigDecimal(index, (BigDecimal) value);
+            return true;
+          case "org.apache.kafka.connect.data.Time":
+            statement.setTime(index, new Time(((java.util.Date) value).getTime()), cal);
+            return true;
+          case "org.apache.kafka.connect.data.Timestamp":
+            statement.setTimestamp(index, new Timestamp(((java.util.Date) value).getTime()), cal);
+            return true;
+          default:
+            return false;
+        }
+      } else {
+        return false;
+      }
+    }
+
+    private static boolean bindPrimitive(final PreparedStatement statement,
+                                         final int index,
+                                         final Schema schema,
+                                         final Object value) throws SQLException {
+      switch (schema.type()) {
+        case INT8:
+        case INT16:
+        case INT32:
+        case INT64:
+          statement.setInt(index, (Integer) value);
+          break;
+        case FLOAT32:
+          statement.setFloat(index, (Float) value);
+          break;
+        case FLOAT64:
+          statement.setInt(index, ((Double) value).intValue());
+          break;
+        case BOOLEAN:
+          statement.setBoolean(index, (Boolean) value);
+          break;
+        case STRING:
+          statement.setString(index, (String) value);
+          break;
+        default:
+          return false;
+      }
+
+      return true;
+    }
+  }
+}
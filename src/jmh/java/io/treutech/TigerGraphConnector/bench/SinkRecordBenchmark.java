@@ -0,0 +1,92 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench;
+
+import io.treutech.TigerGraphConnector.sink.TGSinkConfig;
+import io.treutech.TigerGraphConnector.util.Query;
+import io.treutech.TigerGraphConnector.util.QueryBuilder;
+import io.treutech.TigerGraphConnector.util.TGConfigException;
+import io.treutech.TigerGraphConnector.util.WritePlanCache;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The per-record sink path over struct and schemaless vertex records of growing width: statement
+ * generation through the write plan cache, then generation plus binding against a no-op statement.
+ * Read ops/s next to gc.alloc.rate.norm, which the benchmark profile reports.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="-prof gc -f 1 SinkRecordBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SinkRecordBenchmark {
+  private static final int RECORDS = 1024;
+
+  @Param({"4", "16", "64"})
+  public int attributes;
+
+  @Param({"STRING", "MIXED"})
+  public Fixtures.TypeMix mix;
+
+  @Param({"STRUCT", "SCHEMALESS"})
+  public Fixtures.Format format;
+
+  private TGSinkConfig config;
+  private WritePlanCache plans;
+  private SinkRecord[] records;
+  private NoOpPreparedStatement statement;
+  private int next;
+
+  @Setup
+  public void setup() throws TGConfigException {
+    this.config = Fixtures.sinkConfig();
+    this.plans = new WritePlanCache(this.config, this.config.planCacheSize);
+    final Schema schema = Fixtures.valueSchema(this.attributes, this.mix);
+    this.records = new SinkRecord[RECORDS];
+    for (int i = 0; i < RECORDS; i++) {
+      this.records[i] = Fixtures.record(this.format, schema, this.attributes, this.mix, i);
+    }
+    this.statement = new NoOpPreparedStatement();
+  }
+
+  private SinkRecord nextRecord() {
+    final SinkRecord record = this.records[this.next];
+    this.next = (this.next + 1) & (RECORDS - 1);
+    return record;
+  }
+
+  @Benchmark
+  public Query generate() {
+    return QueryBuilder.generateQuery(this.nextRecord(), this.config, this.plans);
+  }
+
+  @Benchmark
+  public NoOpPreparedStatement generateAndBind() throws SQLException {
+    QueryBuilder.generateQuery(this.nextRecord(), this.config, this.plans).bind(this.statement);
+    return this.statement;
+  }
+}
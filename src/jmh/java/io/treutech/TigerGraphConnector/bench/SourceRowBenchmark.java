@@ -0,0 +1,97 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench;
+
+import io.treutech.TigerGraphConnector.source.ColumnConverter;
+import io.treutech.TigerGraphConnector.source.SchemaMapping;
+import io.treutech.TigerGraphConnector.source.SchemaMappingCache;
+import io.treutech.TigerGraphConnector.source.TGSourceConfig;
+import io.treutech.TigerGraphConnector.util.TGConfigException;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Struct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The source side of a poll over a synthetic result set: building the schema mapping of the result set,
+ * looking it up in a warm {@link SchemaMappingCache} as later polls do, and converting its rows into Connect structs the way {@code TGSourceTask.poll()} does, reported per row.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="-prof gc -f 1 SourceRowBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SourceRowBenchmark {
+  private static final int ROWS = 1000;
+
+  @Param({"4", "16", "64"})
+  public int attributes;
+
+  @Param({"STRING", "MIXED"})
+  public Fixtures.TypeMix mix;
+
+  private TGSourceConfig config;
+  private SyntheticResultSet resultSet;
+  private Pair<SchemaMapping, String> mapping;
+  private SchemaMappingCache cache;
+
+  @Setup
+  public void setup() throws TGConfigException, SQLException {
+    this.config = Fixtures.sourceConfig();
+    this.resultSet = Fixtures.resultSet(this.attributes, this.mix, ROWS);
+    this.mapping = SchemaMapping.create("bench", this.resultSet.getMetaData(), this.config);
+    this.cache = new SchemaMappingCache(this.config, this.config.schemaCacheSize);
+    this.cache.get("bench", this.resultSet.getMetaData());
+  }
+
+  @Benchmark
+  public Pair<SchemaMapping, String> schemaMapping() throws SQLException {
+    return SchemaMapping.create("bench", this.resultSet.getMetaData(), this.config);
+  }
+
+  @Benchmark
+  public Pair<SchemaMapping, String> cachedSchemaMapping() throws SQLException {
+    return this.cache.get("bench", this.resultSet.getMetaData());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void convertRows(final Blackhole blackhole) throws SQLException, IOException {
+    final SchemaMapping schemaMapping = this.mapping.getLeft();
+    this.resultSet.rewind();
+    while (this.resultSet.next()) {
+      final Struct record = new Struct(schemaMapping.getSchema());
+      for (final Pair<Field, ColumnConverter> pair : schemaMapping.getFields()) {
+        record.put(pair.getLeft(), pair.getRight() != null
+            ? (this.resultSet.wasNull() ? null : pair.getRight().convert(this.resultSet))
+            : this.mapping.getRight());
+      }
+      blackhole.consume(record);
+    }
+  }
+}
@@ -0,0 +1,907 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench;
+
+import java.sql.SQLException;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * Forward-only ResultSet over rows held in memory, so benchmarks measure the source row conversion and not a
+ * driver. Only the typed getters the column converters use read the rows; the rest are no-ops.
+ * {@link #rewind()} starts over, so one instance serves every benchmark invocation.
+ */
+public class SyntheticResultSet implements java.sql.ResultSet {
+  private final SyntheticResultSetMetaData metadata;
+  private final Object[][] rows;
+  private int cursor = -1;
+
+  public SyntheticResultSet(final SyntheticResultSetMetaData metadata, final Object[][] rows) {
+    this.metadata = metadata;
+    this.rows = rows;
+  }
+
+  public void rewind() {
+    this.cursor = -1;
+  }
+
+  private Object value(final int column) {
+    return this.rows[this.cursor][column - 1];
+  }
+
+  @Override
+  public boolean next() throws SQLException {
+    return ++this.cursor < this.rows.length;
+  }
+
+  @Override
+  public boolean wasNull() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isLast() throws SQLException {
+    return this.cursor == this.rows.length - 1;
+  }
+
+  @Override
+  public java.sql.ResultSetMetaData getMetaData() throws SQLException {
+    return this.metadata;
+  }
+
+  @Override
+  public int findColumn(final String label) throws SQLException {
+    for (int i = 1; i <= this.metadata.getColumnCount(); i++) {
+      if (this.metadata.getColumnLabel(i).equals(label)) {
+        return i;
+      }
+    }
+    throw new SQLException("No column " + label);
+  }
+
+  @Override
+  public Object getObject(final int column) throws SQLException {
+    return this.value(column);
+  }
+
+  @Override
+  public Object getObject(final String label) throws SQLException {
+    return this.value(this.findColumn(label));
+  }
+
+  @Override
+  public String getString(final int column) throws SQLException {
+    return String.valueOf(this.value(column));
+  }
+
+  @Override
+  public String getNString(final int column) throws SQLException {
+    return String.valueOf(this.value(column));
+  }
+
+  @Override
+  public byte getByte(final int column) throws SQLException {
+    return ((Number) this.value(column)).byteValue();
+  }
+
+  @Override
+  public short getShort(final int column) throws SQLException {
+    return ((Number) this.value(column)).shortValue();
+  }
+
+  @Override
+  public int getInt(final int column) throws SQLException {
+    return ((Number) this.value(column)).intValue();
+  }
+
+  @Override
+  public long getLong(final int column) throws SQLException {
+    return ((Number) this.value(column)).longValue();
+  }
+
+  @Override
+  public float getFloat(final int column) throws SQLException {
+    return ((Number) this.value(column)).floatValue();
+  }
+
+  @Override
+  public double getDouble(final int column) throws SQLException {
+    return ((Number) this.value(column)).doubleValue();
+  }
+
+  @Override
+  public boolean getBoolean(final int column) throws SQLException {
+    return (Boolean) this.value(column);
+  }
+
+  @Override
+  public java.math.BigDecimal getBigDecimal(final int column) throws SQLException {
+    return new java.math.BigDecimal(this.value(column).toString());
+  }
+
+  @Override
+  public byte[] getBytes(final int column) throws SQLException {
+    return (byte[]) this.value(column);
+  }
+
+  @Override
+  public java.sql.Date getDate(final int column, final Calendar cal) throws SQLException {
+    return new java.sql.Date(((java.util.Date) this.value(column)).getTime());
+  }
+
+  @Override
+  public java.sql.Time getTime(final int column, final Calendar cal) throws SQLException {
+    return new java.sql.Time(((java.util.Date) this.value(column)).getTime());
+  }
+
+  @Override
+  public java.sql.Timestamp getTimestamp(final int column, final Calendar cal) throws SQLException {
+    return (java.sql.Timestamp) this.value(column);
+  }
+
+  @Override
+  public boolean absolute(final int arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public void afterLast() throws SQLException {
+  }
+
+  @Override
+  public void beforeFirst() throws SQLException {
+  }
+
+  @Override
+  public void cancelRowUpdates() throws SQLException {
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {
+  }
+
+  @Override
+  public void close() throws SQLException {
+  }
+
+  @Override
+  public void deleteRow() throws SQLException {
+  }
+
+  @Override
+  public boolean first() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public java.sql.Array getArray(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Array getArray(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.io.InputStream getAsciiStream(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.io.InputStream getAsciiStream(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.math.BigDecimal getBigDecimal(final String arg0, final int arg1) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.math.BigDecimal getBigDecimal(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.math.BigDecimal getBigDecimal(final int arg0, final int arg1) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.io.InputStream getBinaryStream(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.io.InputStream getBinaryStream(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Blob getBlob(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Blob getBlob(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public boolean getBoolean(final String arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public byte getByte(final String arg0) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public byte[] getBytes(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.io.Reader getCharacterStream(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.io.Reader getCharacterStream(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Clob getClob(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Clob getClob(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public int getConcurrency() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public String getCursorName() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Date getDate(final String arg0, final Calendar arg1) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Date getDate(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Date getDate(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public double getDouble(final String arg0) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int getFetchDirection() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int getFetchSize() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public float getFloat(final String arg0) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int getHoldability() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int getInt(final String arg0) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public long getLong(final String arg0) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public java.io.Reader getNCharacterStream(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.io.Reader getNCharacterStream(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.NClob getNClob(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.NClob getNClob(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public String getNString(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public <T> T getObject(final String arg0, final Class<T> arg1) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public Object getObject(final String arg0, final Map<String, Class<?>> arg1) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public <T> T getObject(final int arg0, final Class<T> arg1) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public Object getObject(final int arg0, final Map<String, Class<?>> arg1) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Ref getRef(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Ref getRef(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public int getRow() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public java.sql.RowId getRowId(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.RowId getRowId(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.SQLXML getSQLXML(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.SQLXML getSQLXML(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public short getShort(final String arg0) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public java.sql.Statement getStatement() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public String getString(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Time getTime(final String arg0, final Calendar arg1) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Time getTime(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Time getTime(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Timestamp getTimestamp(final String arg0, final Calendar arg1) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Timestamp getTimestamp(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.Timestamp getTimestamp(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public int getType() throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public java.net.URL getURL(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.net.URL getURL(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.io.InputStream getUnicodeStream(final String arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.io.InputStream getUnicodeStream(final int arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public java.sql.SQLWarning getWarnings() throws SQLException {
+    return null;
+  }
+
+  @Override
+  public void insertRow() throws SQLException {
+  }
+
+  @Override
+  public boolean isAfterLast() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isBeforeFirst() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isClosed() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isFirst() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isWrapperFor(final Class<?> arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean last() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public void moveToCurrentRow() throws SQLException {
+  }
+
+  @Override
+  public void moveToInsertRow() throws SQLException {
+  }
+
+  @Override
+  public boolean previous() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public void refreshRow() throws SQLException {
+  }
+
+  @Override
+  public boolean relative(final int arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean rowDeleted() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean rowInserted() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean rowUpdated() throws SQLException {
+    return false;
+  }
+
+  @Override
+  public void setFetchDirection(final int arg0) throws SQLException {
+  }
+
+  @Override
+  public void setFetchSize(final int arg0) throws SQLException {
+  }
+
+  @Override
+  public <T> T unwrap(final Class<T> arg0) throws SQLException {
+    return null;
+  }
+
+  @Override
+  public void updateArray(final String arg0, final java.sql.Array arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateArray(final int arg0, final java.sql.Array arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateAsciiStream(final String arg0, final java.io.InputStream arg1, final int arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateAsciiStream(final String arg0, final java.io.InputStream arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateAsciiStream(final String arg0, final java.io.InputStream arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateAsciiStream(final int arg0, final java.io.InputStream arg1, final int arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateAsciiStream(final int arg0, final java.io.InputStream arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateAsciiStream(final int arg0, final java.io.InputStream arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateBigDecimal(final String arg0, final java.math.BigDecimal arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateBigDecimal(final int arg0, final java.math.BigDecimal arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateBinaryStream(final String arg0, final java.io.InputStream arg1, final int arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateBinaryStream(final String arg0, final java.io.InputStream arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateBinaryStream(final String arg0, final java.io.InputStream arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateBinaryStream(final int arg0, final java.io.InputStream arg1, final int arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateBinaryStream(final int arg0, final java.io.InputStream arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateBinaryStream(final int arg0, final java.io.InputStream arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateBlob(final String arg0, final java.io.InputStream arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateBlob(final String arg0, final java.io.InputStream arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateBlob(final String arg0, final java.sql.Blob arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateBlob(final int arg0, final java.io.InputStream arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateBlob(final int arg0, final java.io.InputStream arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateBlob(final int arg0, final java.sql.Blob arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateBoolean(final String arg0, final boolean arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateBoolean(final int arg0, final boolean arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateByte(final String arg0, final byte arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateByte(final int arg0, final byte arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateBytes(final String arg0, final byte[] arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateBytes(final int arg0, final byte[] arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateCharacterStream(final String arg0, final java.io.Reader arg1, final int arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateCharacterStream(final String arg0, final java.io.Reader arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateCharacterStream(final String arg0, final java.io.Reader arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateCharacterStream(final int arg0, final java.io.Reader arg1, final int arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateCharacterStream(final int arg0, final java.io.Reader arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateCharacterStream(final int arg0, final java.io.Reader arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateClob(final String arg0, final java.io.Reader arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateClob(final String arg0, final java.io.Reader arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateClob(final String arg0, final java.sql.Clob arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateClob(final int arg0, final java.io.Reader arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateClob(final int arg0, final java.io.Reader arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateClob(final int arg0, final java.sql.Clob arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateDate(final String arg0, final java.sql.Date arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateDate(final int arg0, final java.sql.Date arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateDouble(final String arg0, final double arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateDouble(final int arg0, final double arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateFloat(final String arg0, final float arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateFloat(final int arg0, final float arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateInt(final String arg0, final int arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateInt(final int arg0, final int arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateLong(final String arg0, final long arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateLong(final int arg0, final long arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateNCharacterStream(final String arg0, final java.io.Reader arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateNCharacterStream(final String arg0, final java.io.Reader arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateNCharacterStream(final int arg0, final java.io.Reader arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateNCharacterStream(final int arg0, final java.io.Reader arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateNClob(final String arg0, final java.io.Reader arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateNClob(final String arg0, final java.io.Reader arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateNClob(final String arg0, final java.sql.NClob arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateNClob(final int arg0, final java.io.Reader arg1, final long arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateNClob(final int arg0, final java.io.Reader arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateNClob(final int arg0, final java.sql.NClob arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateNString(final String arg0, final String arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateNString(final int arg0, final String arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateNull(final String arg0) throws SQLException {
+  }
+
+  @Override
+  public void updateNull(final int arg0) throws SQLException {
+  }
+
+  @Override
+  public void updateObject(final String arg0, final Object arg1, final int arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateObject(final String arg0, final Object arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateObject(final int arg0, final Object arg1, final int arg2) throws SQLException {
+  }
+
+  @Override
+  public void updateObject(final int arg0, final Object arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateRef(final String arg0, final java.sql.Ref arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateRef(final int arg0, final java.sql.Ref arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateRow() throws SQLException {
+  }
+
+  @Override
+  public void updateRowId(final String arg0, final java.sql.RowId arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateRowId(final int arg0, final java.sql.RowId arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateSQLXML(final String arg0, final java.sql.SQLXML arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateSQLXML(final int arg0, final java.sql.SQLXML arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateShort(final String arg0, final short arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateShort(final int arg0, final short arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateString(final String arg0, final String arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateString(final int arg0, final String arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateTime(final String arg0, final java.sql.Time arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateTime(final int arg0, final java.sql.Time arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateTimestamp(final String arg0, final java.sql.Timestamp arg1) throws SQLException {
+  }
+
+  @Override
+  public void updateTimestamp(final int arg0, final java.sql.Timestamp arg1) throws SQLException {
+  }
+}
@@ -0,0 +1,159 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench;
+
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * ResultSetMetaData of a synthetic result set: named columns of the given java.sql.Types, all signed,
+ * without precision or scale.
+ */
+public class SyntheticResultSetMetaData implements java.sql.ResultSetMetaData {
+  private final String[] names;
+  private final int[] types;
+
+  public SyntheticResultSetMetaData(final String[] names, final int[] types) {
+    this.names = names;
+    this.types = types;
+  }
+
+  @Override
+  public int getColumnCount() throws SQLException {
+    return this.names.length;
+  }
+
+  @Override
+  public String getColumnName(final int column) throws SQLException {
+    return this.names[column - 1];
+  }
+
+  @Override
+  public String getColumnLabel(final int column) throws SQLException {
+    return this.names[column - 1];
+  }
+
+  @Override
+  public int getColumnType(final int column) throws SQLException {
+    return this.types[column - 1];
+  }
+
+  @Override
+  public String getColumnTypeName(final int column) throws SQLException {
+    return java.sql.JDBCType.valueOf(this.types[column - 1]).getName();
+  }
+
+  @Override
+  public String getColumnClassName(final int column) throws SQLException {
+    switch (this.types[column - 1]) {
+      case Types.INTEGER:
+        return Integer.class.getName();
+      case Types.BIGINT:
+        return Long.class.getName();
+      case Types.DOUBLE:
+        return Double.class.getName();
+      case Types.BOOLEAN:
+        return Boolean.class.getName();
+      case Types.TIMESTAMP:
+        return java.sql.Timestamp.class.getName();
+      default:
+        return String.class.getName();
+    }
+  }
+
+  @Override
+  public int getPrecision(final int column) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int getScale(final int column) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public int getColumnDisplaySize(final int column) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public boolean isSigned(final int column) throws SQLException {
+    return true;
+  }
+
+  @Override
+  public String getCatalogName(final int column) throws SQLException {
+    return "";
+  }
+
+  @Override
+  public String getSchemaName(final int column) throws SQLException {
+    return "";
+  }
+
+  @Override
+  public String getTableName(final int column) throws SQLException {
+    return "";
+  }
+
+  @Override
+  public boolean isAutoIncrement(final int arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isCaseSensitive(final int arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isCurrency(final int arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isDefinitelyWritable(final int arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public int isNullable(final int arg0) throws SQLException {
+    return 0;
+  }
+
+  @Override
+  public boolean isReadOnly(final int arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isSearchable(final int arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isWrapperFor(final Class<?> arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public boolean isWritable(final int arg0) throws SQLException {
+    return false;
+  }
+
+  @Override
+  public <T> T unwrap(final Class<T> arg0) throws SQLException {
+    return null;
+  }
+}
@@ -0,0 +1,90 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.bench;
+
+import io.treutech.TigerGraphConnector.sink.FieldBinder;
+import io.treutech.TigerGraphConnector.sink.PreparedStatementBinder;
+import io.treutech.TigerGraphConnector.util.Temporals;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Binding one Timestamp field the way the sink used to, with a new Calendar and a new java.sql.Timestamp,
+ * against a DateTimeFormatter and the {@link Temporals} binder, plus the Calendar the source converters
+ * used to create for every temporal column of every row. Meant to be read with the gc profiler, which the
+ * benchmark profile enables: compare gc.alloc.rate.norm.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="-prof gc -f 1 TemporalBindingBenchmark"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TemporalBindingBenchmark {
+  private static final DateTimeFormatter DATETIME =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+  private NoOpPreparedStatement statement;
+  private FieldBinder binder;
+  private Date value;
+
+  @Setup
+  public void setup() {
+    this.statement = new NoOpPreparedStatement();
+    this.binder = PreparedStatementBinder.fieldBinder(org.apache.kafka.connect.data.Timestamp.SCHEMA);
+    this.value = new Date(1650000000000L);
+  }
+
+  @Benchmark
+  public NoOpPreparedStatement legacy() throws SQLException {
+    final Calendar cal = Calendar.getInstance();
+    this.statement.setTimestamp(1, new Timestamp(this.value.getTime()), cal);
+    return this.statement;
+  }
+
+  @Benchmark
+  public NoOpPreparedStatement formatter() throws SQLException {
+    this.statement.setString(1, DATETIME.format(this.value.toInstant()));
+    return this.statement;
+  }
+
+  @Benchmark
+  public NoOpPreparedStatement temporals() throws SQLException {
+    this.binder.bind(this.statement, 1, this.value);
+    return this.statement;
+  }
+
+  @Benchmark
+  public Calendar legacySourceCalendar() {
+    return Calendar.getInstance();
+  }
+
+  @Benchmark
+  public Calendar sharedSourceCalendar() {
+    return Temporals.utcCalendar();
+  }
+}
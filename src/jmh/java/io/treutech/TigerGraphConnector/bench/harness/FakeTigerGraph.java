@@ -0,0 +1,256 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench.harness;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * An in-process stand-in for TigerGraph that speaks just enough of its REST protocol for the JDBC driver and
+ * the sink writers: token requests, RESTPP upserts, loading job posts and installed query runs. Writes are
+ * parsed and counted, never stored; queries return {@code queryRows} canned vertices. Every request can be
+ * delayed by {@code latencyMs} and fail with probability {@code errorRate}, answered with
+ * {@code "error": true} like a TigerGraph rejecting the request.
+ */
+public class FakeTigerGraph implements AutoCloseable {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private final int latencyMs;
+  private final double errorRate;
+  private final int queryRows;
+  private final int attributes;
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder vertices = new LongAdder();
+  private final LongAdder edges = new LongAdder();
+  private final LongAdder lines = new LongAdder();
+
+  public FakeTigerGraph(final int latencyMs, final double errorRate, final int queryRows, final int attributes)
+      throws IOException {
+    this.latencyMs = latencyMs;
+    this.errorRate = errorRate;
+    this.queryRows = queryRows;
+    this.attributes = attributes;
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    this.executor = Executors.newFixedThreadPool(16, runnable -> {
+      final Thread thread = new Thread(runnable, "fake-tigergraph");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.server.setExecutor(this.executor);
+    this.server.createContext("/gsqlserver/gsql/authtoken", exchange -> this.handle(exchange, this::token));
+    this.server.createContext("/restpp/graph/", exchange -> this.handle(exchange, this::upsert));
+    this.server.createContext("/restpp/ddl/", exchange -> this.handle(exchange, this::load));
+    this.server.createContext("/restpp/query/", exchange -> this.handle(exchange, this::query));
+  }
+
+  public void start() {
+    this.server.start();
+  }
+
+  public int getPort() {
+    return this.server.getAddress().getPort();
+  }
+
+  public long getRequests() {
+    return this.requests.sum();
+  }
+
+  public long getErrors() {
+    return this.errors.sum();
+  }
+
+  public long getVertices() {
+    return this.vertices.sum();
+  }
+
+  public long getEdges() {
+    return this.edges.sum();
+  }
+
+  public long getLines() {
+    return this.lines.sum();
+  }
+
+  @Override
+  public void close() {
+    this.server.stop(0);
+    this.executor.shutdownNow();
+  }
+
+  private interface Handler {
+    JsonNode results(HttpExchange exchange, byte[] body) throws IOException;
+  }
+
+  private void handle(final HttpExchange exchange, final Handler handler) throws IOException {
+    try {
+      this.requests.increment();
+      final byte[] body = read(exchange);
+      if (this.latencyMs > 0) {
+        Thread.sleep(this.latencyMs);
+      }
+      final ObjectNode response = MAPPER.createObjectNode();
+      if (this.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < this.errorRate) {
+        this.errors.increment();
+        response.put("error", true).put("message", "Injected failure");
+      } else {
+        response.put("error", false).put("message", "");
+        response.set("results", handler.results(exchange, body));
+      }
+      final byte[] bytes = MAPPER.writeValueAsBytes(response);
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, bytes.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      exchange.sendResponseHeaders(503, -1);
+    } catch (IOException | RuntimeException e) {
+      final byte[] bytes = e.toString().getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(500, bytes.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(bytes);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private static byte[] read(final HttpExchange exchange) throws IOException {
+    InputStream in = exchange.getRequestBody();
+    if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+      in = new GZIPInputStream(in);
+    }
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    int n;
+    while ((n = in.read(buffer)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  private JsonNode token(final HttpExchange exchange, final byte[] body) {
+    return MAPPER.createObjectNode().put("token", "fake-token");
+  }
+
+  /**
+   * Counts the vertices, {@code {type: {id: attributes}}}, and the edges,
+   * {@code {type: {id: {edge type: {type: {id: attributes}}}}}}, of an upsert. Streamed rather than read
+   * as a tree, since the JDBC driver repeats the type keys of a batch and a tree keeps only the last one.
+   */
+  private JsonNode upsert(final HttpExchange exchange, final byte[] body) throws IOException {
+    long upsertedVertices = 0;
+    long upsertedEdges = 0;
+    try (JsonParser parser = MAPPER.getFactory().createParser(body)) {
+      int depth = 0;
+      String section = null;
+      JsonToken token;
+      while ((token = parser.nextToken()) != null) {
+        switch (token) {
+          case START_OBJECT:
+          case START_ARRAY:
+            depth++;
+            break;
+          case END_OBJECT:
+          case END_ARRAY:
+            depth--;
+            break;
+          case FIELD_NAME:
+            if (depth == 1) {
+              section = parser.getCurrentName();
+            } else if (depth == 3 && "vertices".equals(section)) {
+              upsertedVertices++;
+            } else if (depth == 6 && "edges".equals(section)) {
+              upsertedEdges++;
+            }
+            break;
+          default:
+            break;
+        }
+      }
+    }
+    this.vertices.add(upsertedVertices);
+    this.edges.add(upsertedEdges);
+    final ArrayNode results = MAPPER.createArrayNode();
+    results.addObject().put("accepted_vertices", upsertedVertices).put("accepted_edges", upsertedEdges);
+    return results;
+  }
+
+  private JsonNode load(final HttpExchange exchange, final byte[] body) {
+    long valid = 0;
+    for (int i = 0; i < body.length; i++) {
+      if (body[i] == '\n') {
+        valid++;
+      }
+    }
+    if (body.length > 0 && body[body.length - 1] != '\n') {
+      valid++;
+    }
+    this.lines.add(valid);
+    final ArrayNode results = MAPPER.createArrayNode();
+    results.addObject().putObject("statistics").put("validLine", valid).put("rejectLine", 0);
+    return results;
+  }
+
+  /**
+   * Any installed query returns one vertex set of {@code queryRows} vertices.
+   */
+  private JsonNode query(final HttpExchange exchange, final byte[] body) {
+    final ArrayNode results = MAPPER.createArrayNode();
+    final ArrayNode set = results.addObject().putArray("vs");
+    for (int r = 0; r < this.queryRows; r++) {
+      final ObjectNode vertex = set.addObject().put("v_id", "p-" + r).put("v_type", "person");
+      final ObjectNode values = vertex.putObject("attributes");
+      for (int i = 0; i < this.attributes; i++) {
+        switch (i % 4) {
+          case 1:
+            values.put("attr" + i, r);
+            break;
+          case 2:
+            values.put("attr" + i, r * 0.5d);
+            break;
+          case 3:
+            values.put("attr" + i, r % 2 == 0);
+            break;
+          default:
+            values.put("attr" + i, "value-" + r);
+            break;
+        }
+      }
+    }
+    return results;
+  }
+}
@@ -0,0 +1,79 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench.harness;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.SinkTaskContext;
+
+/**
+ * The worker side of a sink task in the harness: a fixed assignment, with pauses and resumes tracked so the
+ * harness can hold back records like a paused consumer would.
+ */
+public class HarnessSinkTaskContext implements SinkTaskContext {
+  private final Map<String, String> configs;
+  private final Set<TopicPartition> assignment;
+  private final Set<TopicPartition> paused = new HashSet<>();
+
+  public HarnessSinkTaskContext(final Map<String, String> configs, final Set<TopicPartition> assignment) {
+    this.configs = configs;
+    this.assignment = assignment;
+  }
+
+  public boolean isPaused() {
+    return !this.paused.isEmpty();
+  }
+
+  @Override
+  public Map<String, String> configs() {
+    return this.configs;
+  }
+
+  @Override
+  public void offset(final Map<TopicPartition, Long> offsets) {
+  }
+
+  @Override
+  public void offset(final TopicPartition tp, final long offset) {
+  }
+
+  @Override
+  public void timeout(final long timeoutMs) {
+  }
+
+  @Override
+  public Set<TopicPartition> assignment() {
+    return Collections.unmodifiableSet(this.assignment);
+  }
+
+  @Override
+  public void pause(final TopicPartition... partitions) {
+    Collections.addAll(this.paused, partitions);
+  }
+
+  @Override
+  public void resume(final TopicPartition... partitions) {
+    for (final TopicPartition partition : partitions) {
+      this.paused.remove(partition);
+    }
+  }
+
+  @Override
+  public void requestCommit() {
+  }
+}
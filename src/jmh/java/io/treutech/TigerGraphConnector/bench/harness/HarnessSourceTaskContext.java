@@ -0,0 +1,52 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench.harness;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.kafka.connect.source.SourceTaskContext;
+import org.apache.kafka.connect.storage.OffsetStorageReader;
+
+/**
+ * The worker side of a source task in the harness, with no stored offsets so every poll starts over.
+ */
+public class HarnessSourceTaskContext implements SourceTaskContext {
+  private final Map<String, String> configs;
+
+  public HarnessSourceTaskContext(final Map<String, String> configs) {
+    this.configs = configs;
+  }
+
+  @Override
+  public Map<String, String> configs() {
+    return this.configs;
+  }
+
+  @Override
+  public OffsetStorageReader offsetStorageReader() {
+    return new OffsetStorageReader() {
+      @Override
+      public <T> Map<String, Object> offset(final Map<String, T> partition) {
+        return null;
+      }
+
+      @Override
+      public <T> Map<Map<String, T>, Map<String, Object>> offsets(final Collection<Map<String, T>> partitions) {
+        return Collections.emptyMap();
+      }
+    };
+  }
+}
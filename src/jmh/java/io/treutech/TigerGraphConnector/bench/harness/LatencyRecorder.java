@@ -0,0 +1,53 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench.harness;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one kind of call, kept in full so percentiles are exact.
+ */
+public class LatencyRecorder {
+  private long[] nanos = new long[1024];
+  private int count;
+
+  public void record(final long elapsedNanos) {
+    if (this.count == this.nanos.length) {
+      this.nanos = Arrays.copyOf(this.nanos, this.count * 2);
+    }
+    this.nanos[this.count++] = elapsedNanos;
+  }
+
+  public int getCount() {
+    return this.count;
+  }
+
+  /**
+   * The given percentile, 0 to 100, in milliseconds.
+   */
+  public double percentileMs(final double percentile) {
+    if (this.count == 0) {
+      return Double.NaN;
+    }
+    final long[] sorted = Arrays.copyOf(this.nanos, this.count);
+    Arrays.sort(sorted);
+    final int index = (int) Math.ceil(percentile / 100d * this.count) - 1;
+    return sorted[Math.max(0, Math.min(index, this.count - 1))] / 1e6d;
+  }
+
+  public String summary() {
+    return String.format("p50=%.2f ms p95=%.2f ms p99=%.2f ms max=%.2f ms (%d calls)",
+        this.percentileMs(50), this.percentileMs(95), this.percentileMs(99), this.percentileMs(100), this.count);
+  }
+}
@@ -0,0 +1,226 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.bench.harness;
+
+import io.treutech.TigerGraphConnector.bench.Fixtures;
+import io.treutech.TigerGraphConnector.sink.TGSinkTask;
+import io.treutech.TigerGraphConnector.source.TGSourceTask;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.apache.kafka.connect.source.SourceRecord;
+
+/**
+ * Drives a {@link TGSinkTask} or a {@link TGSourceTask} against a {@link FakeTigerGraph}, the way a Connect
+ * worker would, and reports the records per second and the latency percentiles of its put or poll calls.
+ * Runs offline: the JDBC driver and the sink writers talk HTTP to the fake server on the loopback interface.
+ *
+ * Options are {@code --name=value}: {@code mode} (sink or source), {@code records}, {@code batch},
+ * {@code attributes}, {@code format} (STRUCT or SCHEMALESS), {@code polls}, {@code rows}, {@code latency.ms}
+ * and {@code error.rate}. {@code input} replays the records a {@code LoadGenerator} wrote to a file instead of
+ * generating them. Any other {@code name=value} is passed to the task as a connector property, e.g.
+ * {@code tigergraph.sink.writer=RESTPP}.
+ *
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec@harness -Dharness.args="--mode=sink tigergraph.sink.writer=RESTPP"}.
+ */
+public final class ThroughputHarness {
+  private final Map<String, String> options = new HashMap<>();
+  private final Map<String, String> props = new HashMap<>();
+
+  private ThroughputHarness(final String[] args) {
+    this.options.put("mode", "sink");
+    this.options.put("records", "100000");
+    this.options.put("batch", "500");
+    this.options.put("attributes", "8");
+    this.options.put("format", "STRUCT");
+    this.options.put("polls", "50");
+    this.options.put("rows", "1000");
+    this.options.put("latency.ms", "0");
+    this.options.put("error.rate", "0");
+    for (final String arg : args) {
+      final int equals = arg.indexOf('=');
+      if (equals <= 0) {
+        throw new IllegalArgumentException("Expected --option=value or property=value, got " + arg);
+      }
+      if (arg.startsWith("--")) {
+        this.options.put(arg.substring(2, equals), arg.substring(equals + 1));
+      } else {
+        this.props.put(arg.substring(0, equals), arg.substring(equals + 1));
+      }
+    }
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final ThroughputHarness harness = new ThroughputHarness(args);
+    try (FakeTigerGraph tigergraph = new FakeTigerGraph(harness.intOption("latency.ms"),
+        Double.parseDouble(harness.options.get("error.rate")), harness.intOption("rows"), harness.intOption("attributes"))) {
+      tigergraph.start();
+      if ("source".equals(harness.options.get("mode"))) {
+        harness.runSource(tigergraph);
+      } else {
+        harness.runSink(tigergraph);
+      }
+      System.out.printf("TigerGraph: %d requests, %d injected errors, %d vertices, %d edges, %d lines%n",
+          tigergraph.getRequests(), tigergraph.getErrors(), tigergraph.getVertices(), tigergraph.getEdges(),
+          tigergraph.getLines());
+    }
+  }
+
+  private int intOption(final String name) {
+    return Integer.parseInt(this.options.get(name));
+  }
+
+  private Map<String, String> taskProps(final FakeTigerGraph tigergraph) {
+    final Map<String, String> taskProps = new HashMap<>();
+    taskProps.put("tigergraph.ip", "127.0.0.1");
+    taskProps.put("tigergraph.port", String.valueOf(tigergraph.getPort()));
+    taskProps.put("tigergraph.graph", "bench");
+    taskProps.put("tigergraph.username", "tigergraph");
+    taskProps.put("tigergraph.password", "tigergraph");
+    taskProps.put("tigergraph.sink.retry.backoff.ms", "10");
+    taskProps.put("tigergraph.sink.loading.job", "bench");
+    taskProps.put("tigergraph.sink.loading.job.files", "person:f1");
+    taskProps.put("tigergraph.source.query", "run bench(pattern)");
+    taskProps.put("tigergraph.source.query.pattern", "r=?");
+    taskProps.put("tigergraph.source.args", "0");
+    taskProps.put("tigergraph.connector.name", "harness");
+    taskProps.put("tigergraph.task.id", "0");
+    taskProps.putAll(this.props);
+    return taskProps;
+  }
+
+  private void runSink(final FakeTigerGraph tigergraph) throws IOException {
+    final List<SinkRecord> all = this.options.containsKey("input")
+        ? readRecords(this.options.get("input"))
+        : this.generateRecords();
+    final int records = all.size();
+    final int batch = this.intOption("batch");
+    final List<List<SinkRecord>> batches = new ArrayList<>();
+    for (int start = 0; start < records; start += batch) {
+      batches.add(all.subList(start, Math.min(records, start + batch)));
+    }
+    final TopicPartition partition = new TopicPartition("persons", 0);
+    final Set<TopicPartition> assignment = Collections.singleton(partition);
+    final Map<String, String> taskProps = this.taskProps(tigergraph);
+    final HarnessSinkTaskContext context = new HarnessSinkTaskContext(taskProps, assignment);
+    final TGSinkTask task = new TGSinkTask();
+    task.initialize(context);
+    task.start(taskProps);
+    final LatencyRecorder puts = new LatencyRecorder();
+    final long start = System.nanoTime();
+    try {
+      for (final List<SinkRecord> put : batches) {
+        // a paused consumer hands the task empty batches until it resumes
+        while (context.isPaused()) {
+          sleep(10L);
+          task.put(Collections.emptyList());
+        }
+        final long putStart = System.nanoTime();
+        task.put(put);
+        puts.record(System.nanoTime() - putStart);
+      }
+      final Map<TopicPartition, OffsetAndMetadata> offsets =
+          Collections.singletonMap(partition, new OffsetAndMetadata(records));
+      task.flush(offsets);
+      task.close(assignment);
+      task.preCommit(offsets);
+    } finally {
+      task.stop();
+    }
+    final double seconds = (System.nanoTime() - start) / 1e9d;
+    System.out.printf("Sink: %d records in %.2f s, %.0f records/s%n", records, seconds, records / seconds);
+    System.out.println("put: " + puts.summary());
+  }
+
+  private List<SinkRecord> generateRecords() {
+    final int records = this.intOption("records");
+    final int attributes = this.intOption("attributes");
+    final Fixtures.Format format = Fixtures.Format.valueOf(this.options.get("format"));
+    final Schema schema = Fixtures.valueSchema(attributes, Fixtures.TypeMix.MIXED);
+    final List<SinkRecord> generated = new ArrayList<>(records);
+    for (int i = 0; i < records; i++) {
+      generated.add(Fixtures.record(format, schema, attributes, Fixtures.TypeMix.MIXED, i));
+    }
+    return generated;
+  }
+
+  /**
+   * Reads the {@code key<TAB>value} lines written by the LoadGenerator as schemaless records, unwrapping the
+   * payload of JSON values with a schema envelope.
+   */
+  private static List<SinkRecord> readRecords(final String file) throws IOException {
+    final ObjectMapper mapper = new ObjectMapper();
+    final List<SinkRecord> records = new ArrayList<>();
+    try (BufferedReader reader = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final int tab = line.indexOf('\t');
+        Map<?, ?> value = mapper.readValue(line.substring(tab + 1), Map.class);
+        if (value.get("payload") instanceof Map) {
+          value = (Map<?, ?>) value.get("payload");
+        }
+        records.add(new SinkRecord("persons", 0, null, line.substring(0, tab), null, value, records.size()));
+      }
+    }
+    return records;
+  }
+
+  private void runSource(final FakeTigerGraph tigergraph) throws InterruptedException {
+    final int polls = this.intOption("polls");
+    final Map<String, String> taskProps = this.taskProps(tigergraph);
+    final TGSourceTask task = new TGSourceTask();
+    task.initialize(new HarnessSourceTaskContext(taskProps));
+    task.start(taskProps);
+    final LatencyRecorder latencies = new LatencyRecorder();
+    long records = 0;
+    final long start = System.nanoTime();
+    try {
+      for (int i = 0; i < polls; i++) {
+        final long pollStart = System.nanoTime();
+        final List<SourceRecord> polled = task.poll();
+        latencies.record(System.nanoTime() - pollStart);
+        records += polled != null ? polled.size() : 0;
+      }
+    } finally {
+      task.stop();
+    }
+    final double seconds = (System.nanoTime() - start) / 1e9d;
+    System.out.printf("Source: %d records in %.2f s, %.0f records/s%n", records, seconds, records / seconds);
+    System.out.println("poll: " + latencies.summary());
+  }
+
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
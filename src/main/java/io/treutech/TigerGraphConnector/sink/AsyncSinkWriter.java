@@ -0,0 +1,193 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.errors.RetriableException;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands records to a {@link SinkWriter} running on a background thread, so the Connect task thread keeps
+ * fetching while TigerGraph writes are in flight. Batches are written in the order they were submitted and
+ * the offsets of a batch only become committable once the whole batch has been acknowledged.
+ * A write failure stops the writer thread; it is reported to the task thread on its next call.
+ */
+public class AsyncSinkWriter {
+  private static final Logger log = LoggerFactory.getLogger(AsyncSinkWriter.class);
+  private static final long POLL_TIMEOUT_MS = 100L;
+  private final SinkWriter writer;
+  private final LinkedBlockingQueue<Batch> queue = new LinkedBlockingQueue<>();
+  private final AtomicInteger queuedRecords = new AtomicInteger();
+  private final Map<TopicPartition, OffsetAndMetadata> ackedOffsets = new ConcurrentHashMap<>();
+  private final Object drained = new Object();
+  private final Thread thread;
+  private volatile boolean running = true;
+  private volatile Throwable failure;
+
+  public AsyncSinkWriter(final SinkWriter writer, final String name) {
+    this.writer = writer;
+    this.thread = new Thread(this::run, name);
+    this.thread.setDaemon(true);
+  }
+
+  public void start() {
+    this.thread.start();
+  }
+
+  /**
+   * Queues the records for writing. Never blocks: callers bound the queue with {@link #queuedRecords()}.
+   */
+  public void submit(final Collection<SinkRecord> records) {
+    final Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+    for (final SinkRecord record : records) {
+      offsets.put(new TopicPartition(record.topic(), record.kafkaPartition()),
+          new OffsetAndMetadata(record.kafkaOffset() + 1));
+    }
+    this.submit(records, offsets);
+  }
+
+  /**
+   * Queues the records for writing, acknowledging the given offsets once they are written.
+   */
+  public void submit(final Collection<SinkRecord> records, final Map<TopicPartition, OffsetAndMetadata> offsets) {
+    this.checkFailure();
+    if (offsets.isEmpty()) {
+      return;
+    }
+    final List<SinkRecord> copy = new ArrayList<>(records);
+    this.queuedRecords.addAndGet(copy.size());
+    this.queue.add(new Batch(copy, offsets));
+  }
+
+  public int queuedRecords() {
+    return this.queuedRecords.get();
+  }
+
+  /**
+   * The offsets of the given partitions whose records have all been written to TigerGraph.
+   */
+  public Map<TopicPartition, OffsetAndMetadata> ackedOffsets(final Collection<TopicPartition> partitions) {
+    this.checkFailure();
+    final Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+    for (final TopicPartition partition : partitions) {
+      final OffsetAndMetadata offset = this.ackedOffsets.get(partition);
+      if (offset != null) {
+        offsets.put(partition, offset);
+      }
+    }
+    return offsets;
+  }
+
+  /**
+   * Waits until every queued record has been written, the writer failed or the timeout expired.
+   */
+  public void awaitDrained(final long timeoutMs) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + timeoutMs;
+    synchronized (this.drained) {
+      long remaining = timeoutMs;
+      while (this.queuedRecords.get() > 0 && this.failure == null && this.running && remaining > 0) {
+        this.drained.wait(remaining);
+        remaining = deadline - System.currentTimeMillis();
+      }
+    }
+    this.checkFailure();
+  }
+
+  public void forget(final Collection<TopicPartition> partitions) {
+    for (final TopicPartition partition : partitions) {
+      this.ackedOffsets.remove(partition);
+    }
+  }
+
+  public void close(final long timeoutMs) {
+    this.running = false;
+    this.thread.interrupt();
+    try {
+      this.thread.join(timeoutMs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (this.thread.isAlive()) {
+      log.warn("TigerGraph writer thread did not stop within {} ms", timeoutMs);
+    }
+    if (!this.queue.isEmpty()) {
+      log.info("Discarding {} unacknowledged records; they will be redelivered", this.queuedRecords.get());
+    }
+    this.writer.close();
+  }
+
+  private void run() {
+    while (this.running) {
+      final Batch batch;
+      try {
+        batch = this.queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        continue;
+      }
+      if (batch == null) {
+        continue;
+      }
+      try {
+        this.writer.write(batch.records);
+        this.ackedOffsets.putAll(batch.offsets);
+      } catch (Throwable t) {
+        if (this.running) {
+          log.error("TigerGraph writer thread failed", t);
+          this.failure = t;
+        }
+        this.running = false;
+      } finally {
+        this.queuedRecords.addAndGet(-batch.records.size());
+        synchronized (this.drained) {
+          this.drained.notifyAll();
+        }
+      }
+    }
+  }
+
+  private void checkFailure() {
+    final Throwable t = this.failure;
+    if (t != null) {
+      // the failed batches came from earlier puts, so Connect retrying the current one would not replay them
+      if (t instanceof ConnectException && !(t instanceof RetriableException)) {
+        throw (ConnectException) t;
+      }
+      throw new ConnectException("TigerGraph writer thread failed", t);
+    }
+  }
+
+  private static final class Batch {
+    private final List<SinkRecord> records;
+    private final Map<TopicPartition, OffsetAndMetadata> offsets;
+
+    private Batch(final List<SinkRecord> records, final Map<TopicPartition, OffsetAndMetadata> offsets) {
+      this.records = records;
+      this.offsets = offsets;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.sink;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A bounded map from a 64-bit vertex key to the 64-bit hash of the attributes last written for it, kept off
+ * heap so that tens of millions of entries do not weigh on the worker heap: 16 bytes per entry in a direct
+ * buffer, with no per-entry objects. The buffer is split into sets of 4 entries, a key can only live in the
+ * set its hash selects, and a set keeps its entries from most to least recently used, so inserting into a
+ * full set evicts its least recently used entry. Key 0 marks a free entry.
+ * Thread safe.
+ */
+public class AttributeHashCache {
+  private static final int WAYS = 4;
+  private static final int ENTRY_BYTES = 16;
+  private final ByteBuffer buffer;
+  private final int setMask;
+
+  public AttributeHashCache(final int maxEntries) {
+    int sets = Integer.highestOneBit(Math.max(1, maxEntries / WAYS));
+    if (sets < maxEntries / WAYS) {
+      sets <<= 1;
+    }
+    this.setMask = sets - 1;
+    this.buffer = ByteBuffer.allocateDirect(sets * WAYS * ENTRY_BYTES);
+  }
+
+  public int capacity() {
+    return (this.setMask + 1) * WAYS;
+  }
+
+  /**
+   * Whether the key was last written with this hash.
+   */
+  public synchronized boolean contains(final long key, final long hash) {
+    final int set = this.set(key);
+    final long stored = nonZero(key);
+    for (int way = 0; way < WAYS; way++) {
+      final int offset = set + way * ENTRY_BYTES;
+      if (this.buffer.getLong(offset) == stored) {
+        if (this.buffer.getLong(offset + 8) != hash) {
+          return false;
+        }
+        this.promote(set, way, stored, hash);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public synchronized void put(final long key, final long hash) {
+    final int set = this.set(key);
+    final long stored = nonZero(key);
+    int way = 0;
+    while (way < WAYS - 1 && this.buffer.getLong(set + way * ENTRY_BYTES) != stored) {
+      way++;
+    }
+    this.promote(set, way, stored, hash);
+  }
+
+  /**
+   * Moves the entries in front of the way one step back and stores the entry first, dropping what was in the way.
+   */
+  private void promote(final int set, final int way, final long key, final long hash) {
+    for (int i = way; i > 0; i--) {
+      final int to = set + i * ENTRY_BYTES;
+      final int from = to - ENTRY_BYTES;
+      this.buffer.putLong(to, this.buffer.getLong(from));
+      this.buffer.putLong(to + 8, this.buffer.getLong(from + 8));
+    }
+    this.buffer.putLong(set, key);
+    this.buffer.putLong(set + 8, hash);
+  }
+
+  private int set(final long key) {
+    final long mixed = mix(key);
+    return ((int) (mixed ^ (mixed >>> 32)) & this.setMask) * WAYS * ENTRY_BYTES;
+  }
+
+  private static long nonZero(final long key) {
+    return key == 0L ? 1L : key;
+  }
+
+  /**
+   * The 64-bit finalizer of MurmurHash3.
+   */
+  static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb93fe53b4b53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  public String toString() {
+    return "{ capacity='" + this.capacity() + "'}";
+  }
+}
@@ -0,0 +1,95 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.sink;
+
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adapts the number of records per batch to the write latency TigerGraph shows, additive increase and
+ * multiplicative decrease: the size grows by a step after every window of batches whose p95 latency stays
+ * within {@code tigergraph.sink.target.latency.ms}, and is halved when a window misses the target, a single
+ * batch takes more than twice the target, or a write fails to reach TigerGraph. The size stays between 1 and
+ * {@code tigergraph.sink.batch.max.records}. Without a target every batch has the maximum size.
+ * Thread safe: the connections of a writer report to one controller.
+ */
+public class BatchSizeController {
+  private static final Logger log = LoggerFactory.getLogger(BatchSizeController.class);
+  private static final int WINDOW = 20;
+  private final int maxRecords;
+  private final long targetNanos;
+  private final int step;
+  private final long[] window = new long[WINDOW];
+  private int samples;
+  private volatile int batchSize;
+
+  public BatchSizeController(final int maxRecords, final long targetLatencyMs) {
+    this.maxRecords = maxRecords;
+    this.targetNanos = targetLatencyMs * 1000000L;
+    this.step = Math.max(1, maxRecords / 50);
+    this.batchSize = targetLatencyMs > 0 ? Math.max(1, maxRecords / 8) : maxRecords;
+  }
+
+  public int batchSize() {
+    return this.batchSize;
+  }
+
+  /**
+   * Records one write of a batch.
+   * @param latencyNanos how long the write took
+   * @param succeeded false when the write could not reach TigerGraph or timed out
+   */
+  public synchronized void record(final long latencyNanos, final boolean succeeded) {
+    if (this.targetNanos <= 0) {
+      return;
+    }
+    if (!succeeded || latencyNanos > 2 * this.targetNanos) {
+      this.decrease(succeeded ? "latency spike" : "failed write");
+      return;
+    }
+    this.window[this.samples++] = latencyNanos;
+    if (this.samples < WINDOW) {
+      return;
+    }
+    final long[] sorted = this.window.clone();
+    Arrays.sort(sorted);
+    final long p95 = sorted[(int) Math.ceil(0.95 * WINDOW) - 1];
+    if (p95 <= this.targetNanos) {
+      this.samples = 0;
+      if (this.batchSize < this.maxRecords) {
+        this.batchSize = Math.min(this.maxRecords, this.batchSize + this.step);
+        log.debug("Batch size increased to {}, p95 write latency {} ms", this.batchSize, p95 / 1000000L);
+      }
+    } else {
+      this.decrease("p95 write latency " + p95 / 1000000L + " ms");
+    }
+  }
+
+  private void decrease(final String reason) {
+    this.samples = 0;
+    if (this.batchSize > 1) {
+      this.batchSize = Math.max(1, this.batchSize / 2);
+      log.info("Batch size decreased to {} after {}", this.batchSize, reason);
+    }
+  }
+
+  public String toString() {
+    return "{ batchSize='" + this.batchSize +
+        "', maxRecords='" + this.maxRecords +
+        "', targetLatencyMs='" + this.targetNanos / 1000000L + "'}";
+  }
+}
@@ -0,0 +1,120 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.sink;
+
+import io.treutech.TigerGraphConnector.util.Query;
+import io.treutech.TigerGraphConnector.util.WritePlan;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Skips vertex writes that would not change anything: the columns and values bound for a vertex are hashed
+ * to 64 bits and compared with the hash last written for its type and primary id in an
+ * {@link AttributeHashCache}. A hash is only remembered once its write succeeded. A vertex changed or deleted
+ * behind the sink's back is not rewritten until it is evicted or the task restarts.
+ * Thread safe.
+ */
+public class ChangeDetector {
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+  private final AttributeHashCache cache;
+  private final LongAdder unchanged = new LongAdder();
+
+  public ChangeDetector(final int maxEntries) {
+    this.cache = new AttributeHashCache(maxEntries);
+  }
+
+  /**
+   * Whether the query writes a vertex exactly as it was last written. Otherwise the query keeps its
+   * fingerprint for {@link #remember(List)}.
+   *
+   * @param pending the vertices of the records checked so far that are not written yet. A vertex in there
+   *                is never skipped, since an earlier record may have changed it since the cache saw it.
+   */
+  public boolean isUnchanged(final Query query, final Set<Long> pending) {
+    final WritePlan plan = query.getPlan();
+    if (!plan.getElementType().startsWith("v")) {
+      return false;
+    }
+    final Object id = plan.getPrimaryId(query.getRecord());
+    if (id == null) {
+      return false;
+    }
+    final long key = AttributeHashCache.mix(hash(plan.getTableId().getTableName()) * 31 + hash(id));
+    final Pair<String[], Object[]> row = query.getRow();
+    long hash = FNV_OFFSET;
+    for (int i = 0; i < row.getLeft().length; i++) {
+      hash = (hash ^ hash(row.getLeft()[i])) * FNV_PRIME;
+      hash = (hash ^ hash(row.getRight()[i])) * FNV_PRIME;
+    }
+    hash = AttributeHashCache.mix(hash);
+    if (pending.add(key) && this.cache.contains(key, hash)) {
+      this.unchanged.increment();
+      return true;
+    }
+    query.setFingerprint(key, hash);
+    return false;
+  }
+
+  /**
+   * Remembers the fingerprints of a batch that was written.
+   */
+  public void remember(final List<Query> batch) {
+    for (final Query query : batch) {
+      if (query.getFingerprintKey() != 0L) {
+        this.cache.put(query.getFingerprintKey(), query.getFingerprintHash());
+      }
+    }
+  }
+
+  public long getUnchanged() {
+    return this.unchanged.sum();
+  }
+
+  private static long hash(final Object value) {
+    if (value == null) {
+      return 0x9e3779b97f4a7c15L;
+    } else if (value instanceof String) {
+      final String string = (String) value;
+      long hash = FNV_OFFSET;
+      for (int i = 0; i < string.length(); i++) {
+        hash = (hash ^ string.charAt(i)) * FNV_PRIME;
+      }
+      return hash;
+    } else if (value instanceof Double || value instanceof Float) {
+      return Double.doubleToLongBits(((Number) value).doubleValue());
+    } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      return ((Number) value).longValue();
+    } else if (value instanceof java.util.Date) {
+      return ((java.util.Date) value).getTime();
+    } else if (value instanceof byte[]) {
+      long hash = FNV_OFFSET;
+      for (final byte b : (byte[]) value) {
+        hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+      }
+      return hash;
+    }
+    return value.hashCode();
+  }
+
+  public String toString() {
+    return "{ cache='" + this.cache +
+        "', unchanged='" + this.getUnchanged() + "'}";
+  }
+}
@@ -0,0 +1,132 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.sink;
+
+import io.treutech.TigerGraphConnector.util.WritePlan;
+import io.treutech.TigerGraphConnector.util.WritePlanCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+/**
+ * Holds records for up to {@code tigergraph.sink.coalesce.window.ms} and collapses consecutive records of the same
+ * vertex, by type and primary id, into the latest one when they write the same attributes: the latest version then
+ * sets everything the earlier one did, so only it needs to reach TigerGraph. It takes the place of the earlier one.
+ * A version that writes other attributes is kept after the earlier one, and edges are kept as they are. The drained
+ * offsets cover every record added, including the ones that were dropped, so they can be committed once the drained
+ * records are written. Records at or before an offset already held are redeliveries of a put that failed while the
+ * buffer was being written, so they are skipped.
+ * Not thread safe: used by the task thread only.
+ */
+public class CoalescingBuffer {
+  private final WritePlanCache plans;
+  private final long windowMs;
+  private final Map<List<Object>, Integer> positions = new HashMap<>();
+  private final List<SinkRecord> records = new ArrayList<>();
+  private final Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+  private long openedMs = -1L;
+  private long coalesced;
+
+  public CoalescingBuffer(final TGSinkConfig config) {
+    this.plans = new WritePlanCache(config, config.planCacheSize);
+    this.windowMs = config.coalesceWindowMs;
+  }
+
+  public void add(final Collection<SinkRecord> records, final long nowMs) {
+    if (this.openedMs < 0 && !records.isEmpty()) {
+      this.openedMs = nowMs;
+    }
+    for (final SinkRecord record : records) {
+      final TopicPartition partition = new TopicPartition(record.topic(), record.kafkaPartition());
+      final OffsetAndMetadata held = this.offsets.get(partition);
+      if (held != null && record.kafkaOffset() < held.offset()) {
+        continue;
+      }
+      this.offsets.put(partition, new OffsetAndMetadata(record.kafkaOffset() + 1));
+      final WritePlan plan = this.plans.get(record);
+      final Object id = plan.getElementType().startsWith("v") ? plan.getPrimaryId(record) : null;
+      if (id == null) {
+        this.records.add(record);
+        continue;
+      }
+      final List<Object> key = Arrays.asList(plan.getTableId().getTableName(), id);
+      final Integer position = this.positions.get(key);
+      if (position != null && this.plans.get(this.records.get(position)).getSql().equals(plan.getSql())) {
+        this.records.set(position, record);
+        this.coalesced++;
+      } else {
+        this.positions.put(key, this.records.size());
+        this.records.add(record);
+      }
+    }
+  }
+
+  /**
+   * Whether the window has expired, or with a window of 0 whether anything was added.
+   */
+  public boolean isDue(final long nowMs) {
+    return this.openedMs >= 0 && nowMs - this.openedMs >= this.windowMs;
+  }
+
+  public boolean isEmpty() {
+    return this.openedMs < 0;
+  }
+
+  /**
+   * Empties the buffer, returning the coalesced records and the offsets to commit once they are written.
+   */
+  public Pair<List<SinkRecord>, Map<TopicPartition, OffsetAndMetadata>> drain() {
+    final Pair<List<SinkRecord>, Map<TopicPartition, OffsetAndMetadata>> drained =
+        Pair.of(new ArrayList<>(this.records), new HashMap<>(this.offsets));
+    this.clear();
+    return drained;
+  }
+
+  /**
+   * The coalesced records, left in the buffer until {@link #clear()}.
+   */
+  public List<SinkRecord> peek() {
+    return Collections.unmodifiableList(this.records);
+  }
+
+  public void clear() {
+    this.records.clear();
+    this.positions.clear();
+    this.offsets.clear();
+    this.openedMs = -1L;
+  }
+
+  /**
+   * The number of records dropped because a later version of the same vertex replaced them.
+   */
+  public long getCoalesced() {
+    return this.coalesced;
+  }
+
+  public String toString() {
+    return "{ buffered='" + this.records.size() +
+        "', coalesced='" + this.getCoalesced() + "'}";
+  }
+}
@@ -0,0 +1,130 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import io.treutech.TigerGraphConnector.util.WritePlan;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A fixed set of {@code tigergraph.sink.connections} TigerGraph connections of the configured {@code tigergraph.sink.writer}.
+ * Records are routed to a connection by the primary id they are written under, so writes to the same vertex
+ * always go through the same connection and stay in order. A connection that failed a write, or was closed,
+ * is replaced the next time it is used.
+ * A slot must only be used by one thread at a time.
+ */
+public class ConnectionPool {
+  private static final Logger log = LoggerFactory.getLogger(ConnectionPool.class);
+  private final TGSinkConfig config;
+  private final WriteConnection[] slots;
+  private final boolean[] broken;
+
+  public ConnectionPool(final TGSinkConfig config) {
+    this.config = config;
+    this.slots = new WriteConnection[config.connections];
+    this.broken = new boolean[config.connections];
+  }
+
+  public void connect() throws SQLException {
+    for (int i = 0; i < this.slots.length; i++) {
+      this.slots[i] = this.open();
+    }
+  }
+
+  public int size() {
+    return this.slots.length;
+  }
+
+  public int route(final WritePlan plan, final Object primaryId) {
+    if (this.slots.length == 1) {
+      return 0;
+    }
+    final int hash = 31 * plan.getTableId().getTableName().hashCode() + Objects.hashCode(primaryId);
+    return Math.floorMod(hash ^ (hash >>> 16), this.slots.length);
+  }
+
+  /**
+   * The slot's connection, reconnecting first if it is no longer usable. A failure to reconnect is reported
+   * as a {@link SQLTransientConnectionException}, whatever the cause.
+   */
+  public WriteConnection connection(final int slot) throws SQLException {
+    WriteConnection current = this.slots[slot];
+    if (current == null || this.broken[slot] || current.isClosed()) {
+      if (current != null) {
+        log.info("Reconnecting TigerGraph connection {} of {}", slot + 1, this.slots.length);
+        current.close();
+      }
+      this.slots[slot] = null;
+      try {
+        current = this.open();
+      } catch (SQLTransientConnectionException e) {
+        throw e;
+      } catch (SQLException e) {
+        throw new SQLTransientConnectionException("Failed to reconnect to TigerGraph: " + e.getMessage(), "08001", e);
+      }
+      this.slots[slot] = current;
+      this.broken[slot] = false;
+    }
+    return current;
+  }
+
+  /**
+   * Flags the slot's connection after a failed write so it is replaced before its next use.
+   */
+  public void markBroken(final int slot) {
+    this.broken[slot] = true;
+  }
+
+  /**
+   * The share of prepared statement lookups served from the caches of the JDBC connections, NaN before any.
+   */
+  public double statementCacheHitRatio() {
+    long hits = 0L;
+    long lookups = 0L;
+    for (final WriteConnection connection : this.slots) {
+      if (connection instanceof JdbcWriteConnection) {
+        final PreparedStatementCache statements = ((JdbcWriteConnection) connection).getStatements();
+        hits += statements.getHits();
+        lookups += statements.getHits() + statements.getMisses();
+      }
+    }
+    return lookups > 0 ? (double) hits / lookups : Double.NaN;
+  }
+
+  public void close() {
+    for (int i = 0; i < this.slots.length; i++) {
+      if (this.slots[i] != null) {
+        this.slots[i].close();
+        this.slots[i] = null;
+      }
+    }
+  }
+
+  private WriteConnection open() throws SQLException {
+    switch (this.config.writerMode) {
+      case RESTPP:
+        return new RestppWriteConnection(this.config);
+      case LOADING_JOB:
+        return new LoadingJobWriteConnection(this.config);
+      case JDBC:
+      default:
+        return new JdbcWriteConnection(this.config);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.sink;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+/**
+ * A request body gzipped while it is written to the connection: the compressed bytes go straight to the
+ * socket in chunks, so the payload is never held a second time in compressed form. Deflaters are taken from
+ * a pool shared by all connections, since each one holds native memory that is costly to set up.
+ */
+final class GzipEntity extends AbstractHttpEntity {
+  private static final Queue<Deflater> DEFLATERS = new ConcurrentLinkedQueue<>();
+  private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+  private final byte[] content;
+  private final int length;
+
+  GzipEntity(final byte[] content, final int length, final ContentType contentType) {
+    this.content = content;
+    this.length = length;
+    this.setContentType(contentType.toString());
+    this.setContentEncoding("gzip");
+    this.setChunked(true);
+  }
+
+  public boolean isRepeatable() {
+    return true;
+  }
+
+  public long getContentLength() {
+    return -1L;
+  }
+
+  public InputStream getContent() throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    this.writeTo(out);
+    return new ByteArrayInputStream(out.toByteArray());
+  }
+
+  public void writeTo(final OutputStream out) throws IOException {
+    Deflater deflater = DEFLATERS.poll();
+    if (deflater == null) {
+      deflater = new Deflater(Deflater.BEST_SPEED, true);
+    }
+    try {
+      out.write(HEADER);
+      final byte[] chunk = new byte[8192];
+      deflater.setInput(this.content, 0, this.length);
+      deflater.finish();
+      while (!deflater.finished()) {
+        final int n = deflater.deflate(chunk);
+        if (n > 0) {
+          out.write(chunk, 0, n);
+        }
+      }
+      final CRC32 crc = new CRC32();
+      crc.update(this.content, 0, this.length);
+      writeInt(out, (int) crc.getValue());
+      writeInt(out, this.length);
+      out.flush();
+    } finally {
+      deflater.reset();
+      DEFLATERS.offer(deflater);
+    }
+  }
+
+  private static void writeInt(final OutputStream out, final int value) throws IOException {
+    out.write(value & 0xff);
+    out.write((value >>> 8) & 0xff);
+    out.write((value >>> 16) & 0xff);
+    out.write((value >>> 24) & 0xff);
+  }
+
+  public boolean isStreaming() {
+    return false;
+  }
+}
@@ -0,0 +1,66 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import io.treutech.TigerGraphConnector.util.Query;
+import io.treutech.TigerGraphConnector.util.TGResourceUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes batches through the TigerGraph JDBC driver, as prepared INSERT statements.
+ */
+public class JdbcWriteConnection implements WriteConnection {
+  private static final Logger log = LoggerFactory.getLogger(JdbcWriteConnection.class);
+  private final Connection con;
+  private final PreparedStatementCache statements;
+  private long bindNanos;
+
+  public JdbcWriteConnection(final TGSinkConfig config) throws SQLException {
+    this.con = TGResourceUtils.connect(config);
+    this.statements = new PreparedStatementCache(this.con, config.statementCacheSize);
+  }
+
+  public void write(final List<Query> batch) throws SQLException {
+    this.bindNanos = 0L;
+    this.bindNanos = Query.batchRun(this.statements, batch);
+  }
+
+  public long getBindNanos() {
+    return this.bindNanos;
+  }
+
+  public PreparedStatementCache getStatements() {
+    return this.statements;
+  }
+
+  public boolean isClosed() throws SQLException {
+    return this.con.isClosed();
+  }
+
+  public void close() {
+    log.info("Prepared statement cache: {}", this.statements);
+    this.statements.close();
+    try {
+      this.con.close();
+    } catch (SQLException e) {
+      log.error("Failed to close TigerGraph connection: {}", e.getMessage());
+    }
+  }
+}
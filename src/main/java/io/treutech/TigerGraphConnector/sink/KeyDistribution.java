@@ -0,0 +1,64 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import java.util.Random;
+
+/**
+ * Draws key indexes in {@code [0, keys)} for the {@link LoadGenerator}: uniformly, or zipfian so a few hot keys
+ * take most of the writes, the way updates to real graphs cluster on popular vertices.
+ */
+public abstract class KeyDistribution {
+  public abstract int next(Random random);
+
+  public static KeyDistribution uniform(final int keys) {
+    return new KeyDistribution() {
+      @Override
+      public int next(final Random random) {
+        return random.nextInt(keys);
+      }
+    };
+  }
+
+  /**
+   * Key {@code k} is drawn with a probability proportional to {@code 1 / (k + 1)^exponent}, sampled by a binary
+   * search over the precomputed cumulative distribution.
+   */
+  public static KeyDistribution zipfian(final int keys, final double exponent) {
+    final double[] cumulative = new double[keys];
+    double sum = 0d;
+    for (int k = 0; k < keys; k++) {
+      sum += 1d / Math.pow(k + 1, exponent);
+      cumulative[k] = sum;
+    }
+    final double total = sum;
+    return new KeyDistribution() {
+      @Override
+      public int next(final Random random) {
+        final double target = random.nextDouble() * total;
+        int low = 0;
+        int high = keys - 1;
+        while (low < high) {
+          final int mid = (low + high) >>> 1;
+          if (cumulative[mid] < target) {
+            low = mid + 1;
+          } else {
+            high = mid;
+          }
+        }
+        return low;
+      }
+    };
+  }
+}
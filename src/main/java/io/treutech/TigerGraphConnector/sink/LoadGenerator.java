@@ -0,0 +1,220 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+/**
+ * Produces a synthetic mix of vertex and edge records for the sink, to Kafka or to a file, from several threads
+ * at a target rate or as fast as possible, and reports the throughput achieved. Record keys are the vertex ids,
+ * the source vertex id for edges, drawn uniformly or zipfian from a fixed key space.
+ *
+ * Options are {@code --name=value}:
+ * {@code records} (1000000), {@code threads} (4), {@code rate} in records per second over all threads (0, as fast
+ * as possible), {@code format} (STRING, JSON or AVRO, see {@link LoadRecordFactory}), {@code edges}, the share of
+ * edge records (0.5), {@code keys} (100000), {@code distribution} (uniform or zipfian), {@code zipf.exponent}
+ * (0.99), {@code topic} (tigergraph), {@code bootstrap.servers} (localhost:9092), {@code schema.registry.url}
+ * (http://localhost:8081) and {@code file}, which writes {@code key<TAB>value} lines to the given file instead
+ * of sending to Kafka; Avro records are written in their JSON form.
+ */
+public final class LoadGenerator {
+  private static final long REPORT_INTERVAL_MS = 5000L;
+  private final Map<String, String> options = new HashMap<>();
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder acked = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+
+  private LoadGenerator(final String[] args) {
+    this.options.put("records", "1000000");
+    this.options.put("threads", "4");
+    this.options.put("rate", "0");
+    this.options.put("format", "STRING");
+    this.options.put("edges", "0.5");
+    this.options.put("keys", "100000");
+    this.options.put("distribution", "uniform");
+    this.options.put("zipf.exponent", "0.99");
+    this.options.put("topic", "tigergraph");
+    this.options.put("bootstrap.servers", "localhost:9092");
+    this.options.put("schema.registry.url", "http://localhost:8081");
+    for (final String arg : args) {
+      final int equals = arg.indexOf('=');
+      if (!arg.startsWith("--") || equals < 0) {
+        throw new IllegalArgumentException("Expected --option=value, got " + arg);
+      }
+      this.options.put(arg.substring(2, equals), arg.substring(equals + 1));
+    }
+  }
+
+  public static void main(final String[] args) throws Exception {
+    new LoadGenerator(args).run();
+  }
+
+  private interface Output extends AutoCloseable {
+    void send(String key, Object value) throws IOException;
+
+    @Override
+    void close() throws IOException;
+  }
+
+  private void run() throws Exception {
+    final long records = Long.parseLong(this.options.get("records"));
+    final int threads = Integer.parseInt(this.options.get("threads"));
+    final double rate = Double.parseDouble(this.options.get("rate"));
+    final double edgeShare = Double.parseDouble(this.options.get("edges"));
+    final int keys = Integer.parseInt(this.options.get("keys"));
+    final LoadRecordFactory.Format format = LoadRecordFactory.Format.valueOf(this.options.get("format").toUpperCase());
+    final KeyDistribution distribution = "zipfian".equalsIgnoreCase(this.options.get("distribution"))
+        ? KeyDistribution.zipfian(keys, Double.parseDouble(this.options.get("zipf.exponent")))
+        : KeyDistribution.uniform(keys);
+    final KeyDistribution places = KeyDistribution.uniform(Math.max(1, keys / 10));
+    final LoadRecordFactory factory = new LoadRecordFactory(format);
+    final long start = System.nanoTime();
+    try (Output output = this.options.containsKey("file") ? this.fileOutput() : this.kafkaOutput(format)) {
+      final List<Thread> workers = new ArrayList<>(threads);
+      for (int t = 0; t < threads; t++) {
+        final long share = records / threads + (t < records % threads ? 1 : 0);
+        final long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * threads / rate) : 0L;
+        final Random random = new Random(t);
+        final Thread worker = new Thread(() -> {
+          final long workerStart = System.nanoTime();
+          try {
+            for (long i = 0; i < share; i++) {
+              if (intervalNanos > 0) {
+                final long due = workerStart + i * intervalNanos - System.nanoTime();
+                if (due > 0) {
+                  LockSupport.parkNanos(due);
+                }
+              }
+              final String key;
+              final Object value;
+              if (random.nextDouble() < edgeShare) {
+                key = "p-" + distribution.next(random);
+                value = factory.visits(key, "t-" + places.next(random), random);
+              } else if (random.nextInt(10) == 0) {
+                key = "t-" + places.next(random);
+                value = factory.place(key, random);
+              } else {
+                key = "p-" + distribution.next(random);
+                value = factory.person(key, random);
+              }
+              output.send(key, value);
+              this.sent.increment();
+            }
+          } catch (IOException e) {
+            throw new IllegalStateException("Failed to write records", e);
+          }
+        }, "load-generator-" + t);
+        worker.start();
+        workers.add(worker);
+      }
+      long lastSent = 0L;
+      long lastReport = System.nanoTime();
+      for (final Thread worker : workers) {
+        while (worker.isAlive()) {
+          worker.join(REPORT_INTERVAL_MS);
+          final long now = System.nanoTime();
+          if (now - lastReport >= TimeUnit.MILLISECONDS.toNanos(REPORT_INTERVAL_MS)) {
+            final long total = this.sent.sum();
+            System.out.printf("%d records sent, %.0f records/s%n", total, (total - lastSent) / ((now - lastReport) / 1e9d));
+            lastSent = total;
+            lastReport = now;
+          }
+        }
+      }
+    }
+    final double seconds = (System.nanoTime() - start) / 1e9d;
+    final long total = this.sent.sum();
+    System.out.printf("Sent %d records (%d acknowledged, %d failed) in %.2f s: %.0f records/s, %.2f MB/s%n",
+        total, this.acked.sum(), this.failed.sum(), seconds, total / seconds, this.bytes.sum() / seconds / 1e6d);
+  }
+
+  private Output kafkaOutput(final LoadRecordFactory.Format format) {
+    final Properties config = new Properties();
+    config.put(ProducerConfig.CLIENT_ID_CONFIG, "TigerGraphLoadGenerator");
+    config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, this.options.get("bootstrap.servers"));
+    config.put(ProducerConfig.ACKS_CONFIG, "1");
+    config.put(ProducerConfig.LINGER_MS_CONFIG, "5");
+    config.put(ProducerConfig.BATCH_SIZE_CONFIG, "131072");
+    config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
+    if (format == LoadRecordFactory.Format.AVRO) {
+      config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "io.confluent.kafka.serializers.KafkaAvroSerializer");
+      config.put("schema.registry.url", this.options.get("schema.registry.url"));
+    } else {
+      config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "org.apache.kafka.common.serialization.StringSerializer");
+    }
+    final KafkaProducer<String, Object> producer = new KafkaProducer<>(config);
+    final String topic = this.options.get("topic");
+    return new Output() {
+      @Override
+      public void send(final String key, final Object value) {
+        if (value instanceof String) {
+          LoadGenerator.this.bytes.add(((String) value).length());
+        }
+        producer.send(new ProducerRecord<>(topic, key, value), (metadata, e) -> {
+          if (e == null) {
+            LoadGenerator.this.acked.increment();
+          } else {
+            LoadGenerator.this.failed.increment();
+          }
+        });
+      }
+
+      @Override
+      public void close() {
+        producer.flush();
+        producer.close();
+      }
+    };
+  }
+
+  private Output fileOutput() throws IOException {
+    final Writer writer = new BufferedWriter(
+        Files.newBufferedWriter(Paths.get(this.options.get("file")), StandardCharsets.UTF_8), 1 << 20);
+    return new Output() {
+      @Override
+      public void send(final String key, final Object value) throws IOException {
+        final String line = key + '\t' + value + '\n';
+        synchronized (writer) {
+          writer.write(line);
+        }
+        LoadGenerator.this.bytes.add(line.length());
+        LoadGenerator.this.acked.increment();
+      }
+
+      @Override
+      public void close() throws IOException {
+        writer.close();
+      }
+    };
+  }
+}
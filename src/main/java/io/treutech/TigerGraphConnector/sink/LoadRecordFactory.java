@@ -0,0 +1,134 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import io.treutech.TigerGraphConnector.util.Temporals;
+
+import java.util.Random;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+
+/**
+ * Builds the records of the {@link LoadGenerator}: {@code person} and {@code place} vertices and {@code visits}
+ * edges from a person to a place, laid out the way the sink reads them. The type is held in {@code v_type} or
+ * {@code e_type}, the vertex id in {@code v_id}, and an edge names its source and target types in its first two
+ * fields. Values are JSON text for the JsonConverter without schemas ({@link Format#STRING}), JSON with a
+ * schema envelope for the JsonConverter with schemas ({@link Format#JSON}), or Avro records for the AvroConverter
+ * ({@link Format#AVRO}).
+ */
+public final class LoadRecordFactory {
+  public enum Format {
+    STRING,
+    JSON,
+    AVRO
+  }
+
+  private static final String[] NAMES = {"Ada", "Grace", "Alan", "Edsger", "Barbara", "Donald", "Leslie", "Frances"};
+  private static final long EPOCH_MILLIS = 1650000000000L;
+  private static final ElementType PERSON = new ElementType("person", "v_type",
+      new String[] {"v_id", "name", "age", "score", "active", "updated"},
+      new String[] {"string", "string", "int32", "float64", "boolean", "string"});
+  private static final ElementType PLACE = new ElementType("place", "v_type",
+      new String[] {"v_id", "name", "population"},
+      new String[] {"string", "string", "int32"});
+  private static final ElementType VISITS = new ElementType("visits", "e_type",
+      new String[] {"person", "place", "weight"},
+      new String[] {"string", "string", "float64"});
+  private final Format format;
+
+  public LoadRecordFactory(final Format format) {
+    this.format = format;
+  }
+
+  public Object person(final String id, final Random random) {
+    return this.render(PERSON, id, NAMES[random.nextInt(NAMES.length)], 18 + random.nextInt(70),
+        random.nextDouble(), random.nextBoolean(),
+        Temporals.formatDateTime(EPOCH_MILLIS + random.nextInt(86400 * 365) * 1000L));
+  }
+
+  public Object place(final String id, final Random random) {
+    return this.render(PLACE, id, "Town " + id, random.nextInt(1000000));
+  }
+
+  public Object visits(final String personId, final String placeId, final Random random) {
+    return this.render(VISITS, personId, placeId, random.nextDouble());
+  }
+
+  private Object render(final ElementType type, final Object... values) {
+    if (this.format == Format.AVRO) {
+      final GenericData.Record record = new GenericData.Record(type.avroSchema);
+      record.put(type.typeField, type.name);
+      for (int i = 0; i < values.length; i++) {
+        record.put(type.fields[i], values[i]);
+      }
+      return record;
+    }
+    final StringBuilder builder = new StringBuilder(256);
+    if (this.format == Format.JSON) {
+      builder.append("{\"schema\":").append(type.connectSchema).append(",\"payload\":");
+    }
+    builder.append("{\"").append(type.typeField).append("\":\"").append(type.name).append('"');
+    for (int i = 0; i < values.length; i++) {
+      builder.append(",\"").append(type.fields[i]).append("\":");
+      if (values[i] instanceof String) {
+        builder.append('"').append(values[i]).append('"');
+      } else {
+        builder.append(values[i]);
+      }
+    }
+    builder.append('}');
+    if (this.format == Format.JSON) {
+      builder.append('}');
+    }
+    return builder.toString();
+  }
+
+  private static final class ElementType {
+    private final String name;
+    private final String typeField;
+    private final String[] fields;
+    private final String connectSchema;
+    private final Schema avroSchema;
+
+    private ElementType(final String name, final String typeField, final String[] fields, final String[] types) {
+      this.name = name;
+      this.typeField = typeField;
+      this.fields = fields;
+      final StringBuilder connect = new StringBuilder("{\"type\":\"struct\",\"name\":\"").append(name)
+          .append("\",\"optional\":false,\"fields\":[{\"field\":\"").append(typeField)
+          .append("\",\"type\":\"string\",\"optional\":false}");
+      final StringBuilder avro = new StringBuilder("{\"type\":\"record\",\"name\":\"").append(name)
+          .append("\",\"fields\":[{\"name\":\"").append(typeField).append("\",\"type\":\"string\"}");
+      for (int i = 0; i < fields.length; i++) {
+        connect.append(",{\"field\":\"").append(fields[i]).append("\",\"type\":\"").append(types[i])
+            .append("\",\"optional\":false}");
+        avro.append(",{\"name\":\"").append(fields[i]).append("\",\"type\":\"").append(avroType(types[i])).append("\"}");
+      }
+      this.connectSchema = connect.append("]}").toString();
+      this.avroSchema = new Schema.Parser().parse(avro.append("]}").toString());
+    }
+
+    private static String avroType(final String connectType) {
+      switch (connectType) {
+        case "int32":
+          return "int";
+        case "float64":
+          return "double";
+        default:
+          return connectType;
+      }
+    }
+  }
+}
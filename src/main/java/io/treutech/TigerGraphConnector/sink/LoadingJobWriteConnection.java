@@ -0,0 +1,204 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import io.treutech.TigerGraphConnector.util.Query;
+import io.treutech.TigerGraphConnector.util.RestppClient;
+import io.treutech.TigerGraphConnector.util.Temporals;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.http.entity.ContentType;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Feeds batches to a TigerGraph loading job: records are serialised as CSV or JSON lines and posted to
+ * {@code /restpp/ddl/{graph}?tag={job}&filename={file}}, where the file is the {@code DEFINE FILENAME} variable
+ * configured for the record's vertex or edge type. Each batch is posted as one request, {@link SinkWriter} cuts
+ * batches at about {@code tigergraph.sink.loading.job.chunk.bytes}.
+ * Columns are in the order the INSERT statement would bind them ($0, $1, ... in the job), temporals are
+ * formatted as TigerGraph DATETIME strings. Lines the job rejects fail the request like a rejected INSERT,
+ * so that the failing records can be isolated.
+ */
+public class LoadingJobWriteConnection implements WriteConnection {
+  private static final Logger log = LoggerFactory.getLogger(LoadingJobWriteConnection.class);
+  private static final JsonFactory JSON = new JsonFactory();
+  private static final char SEPARATOR = ',';
+  private static final char EOL = '\n';
+  private final TGSinkConfig config;
+  private final RestppClient client;
+  private final RequestBuffer buffer;
+  private long bindNanos;
+  private final StringBuilder line = new StringBuilder();
+
+  public LoadingJobWriteConnection(final TGSinkConfig config) throws SQLException {
+    this.config = config;
+    this.client = new RestppClient(config);
+    this.buffer = new RequestBuffer(config);
+  }
+
+  public void write(final List<Query> batch) throws SQLException {
+    final long start = System.nanoTime();
+    this.bindNanos = 0L;
+    final String type = batch.get(0).getPlan().getTableId().getTableName();
+    final String file = this.config.loadingJobFiles.get(type);
+    if (file == null) {
+      throw new ConnectException("No loading job file configured for type " + type
+          + " in tigergraph.sink.loading.job.files");
+    }
+    final String path = "/restpp/ddl/" + this.client.getGraph() + "?tag=" + encode(this.config.loadingJob)
+        + "&filename=" + encode(file) + "&sep=" + encode(String.valueOf(SEPARATOR)) + "&eol=" + encode(String.valueOf(EOL));
+    this.buffer.reset();
+    for (final Query query : batch) {
+      final Pair<String[], Object[]> row = query.getRow();
+      if (this.buffer.size() == 0 && this.config.loadingJobHeader && !this.config.loadingJobJson) {
+        this.appendHeader(row.getLeft());
+      }
+      if (this.config.loadingJobJson) {
+        this.appendJson(row.getLeft(), row.getRight());
+      } else {
+        this.appendCsv(row.getRight());
+      }
+    }
+    this.bindNanos = System.nanoTime() - start;
+    this.post(path, batch.size());
+  }
+
+  public long getBindNanos() {
+    return this.bindNanos;
+  }
+
+  /**
+   * Posts the buffered lines, failing when the job rejected any of them: the response counts them in the
+   * {@code rejectLine} statistics of each result.
+   */
+  private void post(final String path, final int lines) throws SQLException {
+    log.debug("Posting {} lines, {} bytes to loading job {}", lines, this.buffer.size(), this.config.loadingJob);
+    final JsonNode response = this.client.post(path, this.buffer.toEntity(
+        this.config.loadingJobJson ? ContentType.APPLICATION_JSON : ContentType.TEXT_PLAIN));
+    long valid = 0L;
+    long rejected = 0L;
+    for (final JsonNode result : response.path("results")) {
+      valid += result.path("statistics").path("validLine").asLong();
+      rejected += result.path("statistics").path("rejectLine").asLong();
+    }
+    if (rejected > 0) {
+      throw new SQLException("Loading job " + this.config.loadingJob + " rejected " + rejected + " of " + lines
+          + " lines, " + valid + " valid: " + response.path("results"));
+    }
+  }
+
+  private void appendHeader(final String[] columns) {
+    this.line.setLength(0);
+    for (int i = 0; i < columns.length; i++) {
+      if (i > 0) {
+        this.line.append(SEPARATOR);
+      }
+      appendCsvField(this.line, columns[i]);
+    }
+    this.appendLine();
+  }
+
+  private void appendCsv(final Object[] values) {
+    this.line.setLength(0);
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        this.line.append(SEPARATOR);
+      }
+      appendCsvField(this.line, format(values[i]));
+    }
+    this.appendLine();
+  }
+
+  private void appendLine() {
+    this.line.append(EOL);
+    final byte[] bytes = this.line.toString().getBytes(StandardCharsets.UTF_8);
+    this.buffer.write(bytes, 0, bytes.length);
+  }
+
+  private void appendJson(final String[] columns, final Object[] values) throws SQLException {
+    try (JsonGenerator generator = JSON.createGenerator(this.buffer, JsonEncoding.UTF8)) {
+      generator.writeStartObject();
+      for (int i = 0; i < columns.length; i++) {
+        generator.writeFieldName(columns[i]);
+        RestppWriteConnection.writeValue(generator, values[i]);
+      }
+      generator.writeEndObject();
+    } catch (IOException e) {
+      throw new SQLException("Failed to serialise record: " + e.getMessage(), e);
+    }
+    this.buffer.write(EOL);
+  }
+
+  private static String format(final Object value) {
+    if (value == null) {
+      return "";
+    } else if (value instanceof java.util.Date) {
+      return Temporals.formatDateTime((java.util.Date) value);
+    } else if (value instanceof BigDecimal) {
+      return ((BigDecimal) value).toPlainString();
+    }
+    return String.valueOf(value);
+  }
+
+  private static void appendCsvField(final StringBuilder sb, final String value) {
+    boolean quote = false;
+    for (int i = 0; i < value.length() && !quote; i++) {
+      final char c = value.charAt(i);
+      quote = c == SEPARATOR || c == '"' || c == '\n' || c == '\r';
+    }
+    if (!quote) {
+      sb.append(value);
+      return;
+    }
+    sb.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      if (c == '"') {
+        sb.append('"');
+      }
+      sb.append(c);
+    }
+    sb.append('"');
+  }
+
+  private static String encode(final String value) {
+    try {
+      return URLEncoder.encode(value, "UTF-8");
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  public boolean isClosed() {
+    return this.client.isClosed();
+  }
+
+  public void close() {
+    this.client.close();
+  }
+}
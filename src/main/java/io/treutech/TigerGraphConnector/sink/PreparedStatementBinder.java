@@ -13,7 +13,10 @@
 
 package io.treutech.TigerGraphConnector.sink;
 
-import org.apache.commons.lang3.tuple.Pair;
+import io.treutech.TigerGraphConnector.util.SchemalessShape;
+import io.treutech.TigerGraphConnector.util.Temporals;
+import io.treutech.TigerGraphConnector.util.WritePlan;
+
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
@@ -22,64 +25,67 @@ import org.apache.kafka.connect.sink.SinkRecord;
 
 import java.math.BigDecimal;
 import java.sql.*;
-import java.util.Calendar;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 public class PreparedStatementBinder implements StatementBinder {
+  private static final FieldBinder INT_BINDER =
+      (statement, index, value) -> statement.setInt(index, ((Number) value).intValue());
+  private static final FieldBinder LONG_BINDER =
+      (statement, index, value) -> statement.setLong(index, (Long) value);
+  private static final FieldBinder FLOAT32_BINDER =
+      (statement, index, value) -> statement.setFloat(index, (Float) value);
+  private static final FieldBinder FLOAT64_BINDER =
+      (statement, index, value) -> statement.setDouble(index, (Double) value);
+  private static final FieldBinder BOOLEAN_BINDER =
+      (statement, index, value) -> statement.setBoolean(index, (Boolean) value);
+  private static final FieldBinder STRING_BINDER =
+      (statement, index, value) -> statement.setString(index, (String) value);
+  // the driver's setDate, setTime and setTimestamp throw UnsupportedOperationException and it takes no BigDecimal,
+  // so temporals go as TigerGraph DATETIME strings and decimals as doubles
+  private static final FieldBinder DATETIME_BINDER =
+      (statement, index, value) -> statement.setString(index, Temporals.formatDateTime((java.util.Date) value));
+  private static final FieldBinder DECIMAL_BINDER =
+      (statement, index, value) -> statement.setDouble(index, ((BigDecimal) value).doubleValue());
   private final TGSinkConfig.PrimaryKeyMode pkMode;
-  private final String typeNameKey;
   private final PreparedStatement statement;
-  private final Pair<Schema, Schema> schemaPair;
-  private final FieldMetadata fieldsMetadata;
+  private final WritePlan plan;
 
   public PreparedStatementBinder(final PreparedStatement statement,
                                  final TGSinkConfig.PrimaryKeyMode pkMode,
-                                 final String typeNameKey,
-                                 final Pair<Schema, Schema> schemaPair,
-                                 final FieldMetadata fieldsMetadata) {
+                                 final WritePlan plan) {
     this.pkMode = pkMode;
-    this.typeNameKey = typeNameKey;
     this.statement = statement;
-    this.schemaPair = schemaPair;
-    this.fieldsMetadata = fieldsMetadata;
+    this.plan = plan;
   }
 
   public void bindRecord(final SinkRecord record) throws SQLException {
     if (record.valueSchema() != null) {
-      this.bindNonKeyFields(record, (Struct) record.value(), this.bindKeyFields(record, 1));
+      final Struct valueStruct = (Struct) record.value();
+      this.bindNonKeyFields(valueStruct, this.bindKeyFields(record, valueStruct, 1));
     } else {
-      this.bindDirectlyFromRecord(new HashMap<String, Object>((HashMap) record.value()));
+      this.bindDirectlyFromRecord((Map<?, ?>) record.value());
     }
     this.statement.addBatch();
   }
 
-  private int bindKeyFields(final SinkRecord record, final int index) throws SQLException {
+  private int bindKeyFields(final SinkRecord record, final Struct valueStruct, final int index) throws SQLException {
     int index2 = index;
     switch (this.pkMode) {
       case NONE:
-        if (!this.fieldsMetadata.keyFieldNames.isEmpty()) {
+        if (!this.plan.getFieldMetadata().keyFieldNames.isEmpty()) {
           throw new AssertionError();
         }
         break;
       case RECORD_KEY:
-        final Schema keySchema = this.schemaPair.getLeft();
-        if (keySchema.type().isPrimitive()) {
-          assert this.fieldsMetadata.keyFieldNames.size() == 1;
-          this.bindField(index2++, keySchema, record.key());
+        if (this.plan.getKeyBinder() != null) {
+          assert this.plan.getFieldMetadata().keyFieldNames.size() == 1;
+          this.bindField(index2++, this.plan.getKeyBinder(), record.key());
         } else {
-          for (String fieldName : this.fieldsMetadata.keyFieldNames) {
-            final Field field = keySchema.field(fieldName);
-            this.bindField(index2++, field.schema(), ((Struct) record.key()).get(field));
-          }
+          index2 = this.bindFields((Struct) record.key(), this.plan.getKeyFields(), this.plan.getKeyBinders(), index2);
         }
         break;
       case RECORD_VALUE:
-        for (String fieldName : this.fieldsMetadata.keyFieldNames) {
-          final Field field = ((Schema) this.schemaPair.getRight()).field(fieldName);
-          this.bindField(index2++, field.schema(), ((Struct) record.value()).get(field));
-        }
+        index2 = this.bindFields(valueStruct, this.plan.getKeyFields(), this.plan.getKeyBinders(), index2);
         break;
       default:
         throw new ConnectException("Unknown primary key mode: " + this.pkMode);
@@ -88,132 +94,92 @@ public class PreparedStatementBinder implements StatementBinder {
     return index2;
   }
 
-  private void bindNonKeyFields(final SinkRecord record, final Struct valueStruct, final int index) throws SQLException {
+  private void bindNonKeyFields(final Struct valueStruct, final int index) throws SQLException {
+    this.bindFields(valueStruct, this.plan.getNonKeyFields(), this.plan.getNonKeyBinders(), index);
+  }
+
+  private int bindFields(final Struct struct,
+                         final Field[] fields,
+                         final FieldBinder[] binders,
+                         final int index) throws SQLException {
     int index2 = index;
-    for (String fieldName : this.fieldsMetadata.nonKeyFieldNames) {
-      final Field field = record.valueSchema().field(fieldName);
-      this.bindField(index2++, field.schema(), valueStruct.get(field));
+    for (int i = 0; i < fields.length; i++) {
+      this.bindField(index2++, binders[i], struct.get(fields[i]));
     }
+    return index2;
   }
 
-  private void bindDirectlyFromRecord(final Map<String, Object> values) throws SQLException {
-    if (values != null) {
-      String tableKey = null;
-      String idKey = null;
-      for (String s : values.keySet()) {
-        if (s.endsWith("_" + this.typeNameKey)) {
-          tableKey = s;
-        }
-        if (s.endsWith("_id")) {
-          idKey = s;
-        }
-      }
-      if (tableKey != null) {
-        values.remove(tableKey);
-      }
-      int index = 1;
-      if (idKey != null) {
-        this.bindField(index++, Schema.STRING_SCHEMA, values.get(idKey));
-        values.remove(idKey);
-      }
-      Object currentValue;
-      Schema currentSchema;
-      for (final Iterator<String> iter = values.keySet().iterator();
-           iter.hasNext();
-           this.bindField(index++, currentSchema, currentValue)) {
-        currentValue = values.get(iter.next());
-        currentSchema = Schema.STRING_SCHEMA;
-        if (currentValue instanceof Integer) {
-          currentSchema = Schema.INT64_SCHEMA;
-        } else if (currentValue instanceof Float) {
-          currentSchema = Schema.FLOAT32_SCHEMA;
-        } else if (currentValue instanceof Double) {
-          currentSchema = Schema.FLOAT64_SCHEMA;
-        } else if (currentValue instanceof Boolean) {
-          currentSchema = Schema.BOOLEAN_SCHEMA;
-        } else if (currentValue instanceof Long) {
-          currentSchema = Schema.INT64_SCHEMA;
-          currentValue = ((Long) currentValue).intValue();
-        }
+  /**
+   * Binds the values of a schemaless record straight from its Map, in the key order of the plan's shape.
+   */
+  private void bindDirectlyFromRecord(final Map<?, ?> values) throws SQLException {
+    final SchemalessShape shape = this.plan.getShape();
+    final String[] keys = shape.getKeys();
+    int index = 1;
+    for (int i = 0; i < keys.length; i++) {
+      Object currentValue = values.get(keys[i]);
+      FieldBinder currentBinder = STRING_BINDER;
+      if (i == 0 && shape.getIdKey() != null) {
+        // the id is always bound as a string
+      } else if (currentValue instanceof Integer) {
+        currentBinder = INT_BINDER;
+      } else if (currentValue instanceof Float) {
+        currentBinder = FLOAT32_BINDER;
+      } else if (currentValue instanceof Double) {
+        currentBinder = FLOAT64_BINDER;
+      } else if (currentValue instanceof Boolean) {
+        currentBinder = BOOLEAN_BINDER;
+      } else if (currentValue instanceof Long) {
+        currentBinder = LONG_BINDER;
       }
+      this.bindField(index++, currentBinder, currentValue);
     }
   }
 
-  private void bindField(final int index, final Schema schema, final Object value) throws SQLException {
-    this.bindField(this.statement, index, schema, value);
-  }
-
-  private void bindField(final PreparedStatement statement,
-                         final int index,
-                         final Schema schema,
-                         final Object value) throws SQLException {
+  private void bindField(final int index, final FieldBinder binder, final Object value) throws SQLException {
     if (value == null) {
-      statement.setObject(index, null);
+      this.statement.setObject(index, null);
     } else {
-      boolean bound = this.bindLogical(statement, index, schema, value);
-      if (!bound) {
-        bound = this.bindPrimitive(statement, index, schema, value);
-      }
-      if (!bound) {
-        throw new ConnectException("Unsupported source data type: " + schema.type());
-      }
+      binder.bind(this.statement, index, value);
     }
   }
 
-  private boolean bindLogical(final PreparedStatement statement,
-                              final int index,
-                              final Schema schema,
-                              final Object value) throws SQLException {
+  /**
+   * Resolves the setter for a Connect schema once, so that binding a value needs no switch on the schema.
+   */
+  public static FieldBinder fieldBinder(final Schema schema) {
     if (schema.name() != null) {
-      Calendar cal = Calendar.getInstance();
       switch (schema.name()) {
         case "org.apache.kafka.connect.data.Date":
-          statement.setDate(index, new Date(((java.util.Date) value).getTime()), cal);
-          return true;
-        case "org.apache.kafka.connect.data.Decimal":
-          statement.setBigDecimal(index, (BigDecimal) value);
-          return true;
         case "org.apache.kafka.connect.data.Time":
-          statement.setTime(index, new Time(((java.util.Date) value).getTime()), cal);
-          return true;
         case "org.apache.kafka.connect.data.Timestamp":
-          statement.setTimestamp(index, new Timestamp(((java.util.Date) value).getTime()), cal);
-          return true;
+          return DATETIME_BINDER;
+        case "org.apache.kafka.connect.data.Decimal":
+          return DECIMAL_BINDER;
         default:
-          return false;
+          break;
       }
-    } else {
-      return false;
     }
-  }
-
-  private boolean bindPrimitive(final PreparedStatement statement,
-                                final int index,
-                                final Schema schema,
-                                final Object value) throws SQLException {
     switch (schema.type()) {
       case INT8:
       case INT16:
       case INT32:
+        return INT_BINDER;
       case INT64:
-        statement.setInt(index, (Integer) value);
-        break;
+        return LONG_BINDER;
       case FLOAT32:
-        statement.setFloat(index, (Float) value);
-        break;
+        return FLOAT32_BINDER;
       case FLOAT64:
-        statement.setInt(index, ((Double) value).intValue());
-        break;
+        return FLOAT64_BINDER;
       case BOOLEAN:
-        statement.setBoolean(index, (Boolean) value);
-        break;
+        return BOOLEAN_BINDER;
       case STRING:
-        statement.setString(index, (String) value);
-        break;
+        return STRING_BINDER;
       default:
-        return false;
+        final Schema.Type type = schema.type();
+        return (statement, index, value) -> {
+          throw new ConnectException("Unsupported source data type: " + type);
+        };
     }
-
-    return true;
   }
 }
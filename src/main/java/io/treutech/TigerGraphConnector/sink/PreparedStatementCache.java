@@ -0,0 +1,111 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded LRU cache of prepared statements keyed by their INSERT template.
+ * Statements evicted from the cache are closed. Not thread safe: each connection owns its own cache.
+ */
+public class PreparedStatementCache {
+  private static final Logger log = LoggerFactory.getLogger(PreparedStatementCache.class);
+  private final Connection con;
+  private final Map<String, PreparedStatement> statements;
+  private volatile long hits;
+  private volatile long misses;
+  private volatile long evictions;
+
+  public PreparedStatementCache(final Connection con, final int maxSize) {
+    this.con = con;
+    this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, PreparedStatement> eldest) {
+        if (this.size() > maxSize) {
+          PreparedStatementCache.this.evictions++;
+          closeQuietly(eldest.getValue());
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  public PreparedStatement prepare(final String sql) throws SQLException {
+    PreparedStatement stmt = this.statements.get(sql);
+    if (stmt != null) {
+      this.hits++;
+      return stmt;
+    }
+    this.misses++;
+    stmt = this.con.prepareStatement(sql);
+    this.statements.put(sql, stmt);
+    return stmt;
+  }
+
+  /**
+   * Drops and closes the statement cached for the template, e.g. after a failed batch left it in an unknown state.
+   */
+  public void invalidate(final String sql) {
+    final PreparedStatement stmt = this.statements.remove(sql);
+    if (stmt != null) {
+      closeQuietly(stmt);
+    }
+  }
+
+  public void close() {
+    for (final PreparedStatement stmt : this.statements.values()) {
+      closeQuietly(stmt);
+    }
+    this.statements.clear();
+  }
+
+  public int size() {
+    return this.statements.size();
+  }
+
+  public long getHits() {
+    return this.hits;
+  }
+
+  public long getMisses() {
+    return this.misses;
+  }
+
+  public long getEvictions() {
+    return this.evictions;
+  }
+
+  public String toString() {
+    return "{ size='" + this.size() +
+        "', hits='" + this.getHits() +
+        "', misses='" + this.getMisses() +
+        "', evictions='" + this.getEvictions() + "'}";
+  }
+
+  private static void closeQuietly(final PreparedStatement stmt) {
+    try {
+      stmt.close();
+    } catch (SQLException e) {
+      log.warn("Failed to close prepared statement: {}", e.getMessage());
+    }
+  }
+}
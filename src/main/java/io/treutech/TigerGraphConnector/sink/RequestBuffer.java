@@ -0,0 +1,43 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import java.io.ByteArrayOutputStream;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+/**
+ * Request body buffer reused across batches, so serialising a batch does not allocate a new array per write.
+ * Bodies of at least {@code tigergraph.sink.compression.min.bytes} are gzipped on the way out when
+ * {@code tigergraph.sink.compression} is gzip.
+ */
+final class RequestBuffer extends ByteArrayOutputStream {
+  private final boolean gzip;
+  private final int minCompressBytes;
+
+  RequestBuffer(final TGSinkConfig config) {
+    super(64 * 1024);
+    this.gzip = config.compression == TGSinkConfig.Compression.GZIP;
+    this.minCompressBytes = config.compressionMinBytes;
+  }
+
+  HttpEntity toEntity(final ContentType contentType) {
+    if (this.gzip && this.count >= this.minCompressBytes) {
+      return new GzipEntity(this.buf, this.count, contentType);
+    }
+    return new ByteArrayEntity(this.buf, 0, this.count, contentType);
+  }
+}
@@ -0,0 +1,205 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import io.treutech.TigerGraphConnector.util.Query;
+import io.treutech.TigerGraphConnector.util.RestppClient;
+import io.treutech.TigerGraphConnector.util.Temporals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.http.entity.ContentType;
+
+/**
+ * Writes a whole batch of vertices and edges as one RESTPP upsert, {@code POST /restpp/graph/{graph}}, bypassing
+ * the JDBC driver. Records are mapped the way the driver maps INSERT statements: a vertex is keyed by its
+ * {@code id} column (the first column otherwise), and the first two columns of an edge name the source and target
+ * vertex types and hold their ids. Every other column is written as an attribute.
+ * Records for the same vertex or edge within a batch are merged attribute by attribute in arrival order, so the
+ * last value written for each attribute wins, like it does when the records are upserted one after another.
+ */
+public class RestppWriteConnection implements WriteConnection {
+  private static final JsonFactory JSON = new JsonFactory();
+  private final RestppClient client;
+  private final String path;
+  private final RequestBuffer buffer;
+  private long bindNanos;
+
+  public RestppWriteConnection(final TGSinkConfig config) throws SQLException {
+    this.client = new RestppClient(config);
+    this.buffer = new RequestBuffer(config);
+    this.path = "/restpp/graph/" + config.tigergraph_graph;
+  }
+
+  public void write(final List<Query> batch) throws SQLException {
+    final long start = System.nanoTime();
+    this.bindNanos = 0L;
+    this.buffer.reset();
+    try (JsonGenerator generator = JSON.createGenerator(this.buffer, JsonEncoding.UTF8)) {
+      writeUpsert(generator, batch);
+    } catch (IOException e) {
+      throw new SQLException("Failed to serialise upsert of " + batch.size() + " records: " + e.getMessage(), e);
+    }
+    this.bindNanos = System.nanoTime() - start;
+    this.client.post(this.path, this.buffer.toEntity(ContentType.APPLICATION_JSON));
+  }
+
+  public long getBindNanos() {
+    return this.bindNanos;
+  }
+
+  /**
+   * Streams the RESTPP upsert document for the batch: {@code {"vertices": {type: {id: {attr: {"value": v}}}},
+   * "edges": {sourceType: {sourceId: {edgeType: {targetType: {targetId: {attr: {"value": v}}}}}}}}}.
+   */
+  static void writeUpsert(final JsonGenerator generator, final List<Query> batch) throws IOException {
+    final Map<String, Map<String, Map<String, Object>>> vertices = new LinkedHashMap<>();
+    final Map<String, Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>>> edges =
+        new LinkedHashMap<>();
+    for (final Query query : batch) {
+      final Pair<String[], Object[]> row = query.getRow();
+      final String type = query.getPlan().getTableId().getTableName();
+      if (query.getPlan().getElementType().startsWith("v")) {
+        final int id = idColumn(row.getLeft());
+        merge(vertices.computeIfAbsent(type, t -> new LinkedHashMap<>())
+            .computeIfAbsent(String.valueOf(row.getRight()[id]), v -> new LinkedHashMap<>()), row, id, -1);
+      } else {
+        if (row.getLeft().length < 2) {
+          throw new IOException("Upserting an edge needs two parameters at least.");
+        }
+        merge(edges.computeIfAbsent(row.getLeft()[0], t -> new LinkedHashMap<>())
+            .computeIfAbsent(String.valueOf(row.getRight()[0]), id -> new LinkedHashMap<>())
+            .computeIfAbsent(type, t -> new LinkedHashMap<>())
+            .computeIfAbsent(row.getLeft()[1], t -> new LinkedHashMap<>())
+            .computeIfAbsent(String.valueOf(row.getRight()[1]), id -> new LinkedHashMap<>()), row, 0, 1);
+      }
+    }
+
+    generator.writeStartObject();
+    if (!vertices.isEmpty()) {
+      generator.writeObjectFieldStart("vertices");
+      for (final Map.Entry<String, Map<String, Map<String, Object>>> type : vertices.entrySet()) {
+        generator.writeObjectFieldStart(type.getKey());
+        for (final Map.Entry<String, Map<String, Object>> vertex : type.getValue().entrySet()) {
+          generator.writeFieldName(vertex.getKey());
+          writeAttributes(generator, vertex.getValue());
+        }
+        generator.writeEndObject();
+      }
+      generator.writeEndObject();
+    }
+    if (!edges.isEmpty()) {
+      generator.writeObjectFieldStart("edges");
+      for (final Map.Entry<String, Map<String, Map<String, Map<String, Map<String, Map<String, Object>>>>>> sourceType
+          : edges.entrySet()) {
+        generator.writeObjectFieldStart(sourceType.getKey());
+        for (final Map.Entry<String, Map<String, Map<String, Map<String, Map<String, Object>>>>> source
+            : sourceType.getValue().entrySet()) {
+          generator.writeObjectFieldStart(source.getKey());
+          for (final Map.Entry<String, Map<String, Map<String, Map<String, Object>>>> edgeType
+              : source.getValue().entrySet()) {
+            generator.writeObjectFieldStart(edgeType.getKey());
+            for (final Map.Entry<String, Map<String, Map<String, Object>>> targetType
+                : edgeType.getValue().entrySet()) {
+              generator.writeObjectFieldStart(targetType.getKey());
+              for (final Map.Entry<String, Map<String, Object>> target : targetType.getValue().entrySet()) {
+                generator.writeFieldName(target.getKey());
+                writeAttributes(generator, target.getValue());
+              }
+              generator.writeEndObject();
+            }
+            generator.writeEndObject();
+          }
+          generator.writeEndObject();
+        }
+        generator.writeEndObject();
+      }
+      generator.writeEndObject();
+    }
+    generator.writeEndObject();
+  }
+
+  private static int idColumn(final String[] columns) {
+    for (int i = 0; i < columns.length; i++) {
+      if ("id".equals(columns[i])) {
+        return i;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Adds the row's attributes, every column but the id columns, to those already collected for its vertex or edge.
+   */
+  private static void merge(final Map<String, Object> attributes,
+                            final Pair<String[], Object[]> row,
+                            final int skip1,
+                            final int skip2) {
+    final String[] columns = row.getLeft();
+    for (int i = 0; i < columns.length; i++) {
+      if (i != skip1 && i != skip2) {
+        attributes.put(columns[i], row.getRight()[i]);
+      }
+    }
+  }
+
+  private static void writeAttributes(final JsonGenerator generator,
+                                      final Map<String, Object> attributes) throws IOException {
+    generator.writeStartObject();
+    for (final Map.Entry<String, Object> attribute : attributes.entrySet()) {
+      generator.writeObjectFieldStart(attribute.getKey());
+      generator.writeFieldName("value");
+      writeValue(generator, attribute.getValue());
+      generator.writeEndObject();
+    }
+    generator.writeEndObject();
+  }
+
+  static void writeValue(final JsonGenerator generator, final Object value) throws IOException {
+    if (value == null) {
+      generator.writeNull();
+    } else if (value instanceof String) {
+      generator.writeString((String) value);
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      generator.writeNumber(((Number) value).longValue());
+    } else if (value instanceof Float || value instanceof Double) {
+      generator.writeNumber(((Number) value).doubleValue());
+    } else if (value instanceof BigDecimal) {
+      generator.writeNumber((BigDecimal) value);
+    } else if (value instanceof Boolean) {
+      generator.writeBoolean((Boolean) value);
+    } else if (value instanceof java.util.Date) {
+      generator.writeString(Temporals.formatDateTime((java.util.Date) value));
+    } else {
+      generator.writeString(String.valueOf(value));
+    }
+  }
+
+  public boolean isClosed() {
+    return this.client.isClosed();
+  }
+
+  public void close() {
+    this.client.close();
+  }
+}
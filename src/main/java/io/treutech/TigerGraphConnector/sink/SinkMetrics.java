@@ -0,0 +1,221 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.sink;
+
+import io.treutech.TigerGraphConnector.util.Profiling;
+import io.treutech.TigerGraphConnector.util.Query;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Gauge;
+import org.apache.kafka.common.metrics.JmxReporter;
+import org.apache.kafka.common.metrics.KafkaMetricsContext;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.MetricsReporter;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.CumulativeSum;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Meter;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
+import org.apache.kafka.common.utils.Time;
+
+/**
+ * The metrics of a sink task, registered over JMX as
+ * {@code kafka.connect.tigergraph:type=tigergraph-sink-task-metrics,connector=...,task=...}, plus one
+ * {@code tigergraph-sink-type-metrics} bean per vertex or edge type written. The latencies of a type bean cover
+ * the puts and batches of that type only, those mixing several types are reported under the type {@code *}.
+ * Latencies are in milliseconds.
+ * Thread safe: sensors may be recorded from every connection thread.
+ */
+public class SinkMetrics implements AutoCloseable {
+  private static final String TASK_GROUP = "tigergraph-sink-task-metrics";
+  private static final String TYPE_GROUP = "tigergraph-sink-type-metrics";
+  private static final double MAX_LATENCY_MS = 30000.0;
+  // linear bucket sizing keeps the buckets near 0 narrow: the first of the 4000 latency buckets spans about 4 us
+  private static final int HISTOGRAM_BYTES = 16000;
+  private final Metrics metrics;
+  private final Map<String, String> tags;
+  private final Sensor records;
+  private final Sensor batches;
+  private final Sensor batchSize;
+  private final Sensor prepareTime;
+  private final Sensor bindTime;
+  private final Sensor executeTime;
+  private final Sensor attempts;
+  private final Sensor retries;
+  private final Sensor splits;
+  private final Sensor failures;
+  private final ConcurrentMap<String, TypeSensors> types = new ConcurrentHashMap<>();
+
+  public SinkMetrics(final String connector, final String task, final int maxBatchRecords) {
+    final List<MetricsReporter> reporters = Collections.singletonList(new JmxReporter());
+    this.metrics = new Metrics(new MetricConfig(), reporters, Time.SYSTEM, new KafkaMetricsContext("kafka.connect.tigergraph"));
+    final Map<String, String> tags = new LinkedHashMap<>();
+    tags.put("connector", connector);
+    tags.put("task", task);
+    this.tags = Collections.unmodifiableMap(tags);
+    this.records = this.meter("records", "record-send", "records written to TigerGraph");
+    this.batches = this.meter("batches", "batch-send", "batches written to TigerGraph");
+    this.batchSize = this.distribution("batch-size", "batch-size", "records per batch", maxBatchRecords);
+    this.prepareTime = this.distribution("prepare-time", "prepare-time-ms",
+        "time spent turning a put() into batches, including plan lookups", MAX_LATENCY_MS);
+    this.bindTime = this.distribution("bind-time", "bind-time-ms",
+        "time spent binding or serialising the records of a batch", MAX_LATENCY_MS);
+    this.executeTime = this.distribution("execute-time", "execute-time-ms",
+        "time spent sending a batch to TigerGraph and waiting for the reply", MAX_LATENCY_MS);
+    this.attempts = this.meter("attempts", "write-attempt", "attempts to write a batch, retries included");
+    this.retries = this.meter("retries", "write-retry", "failed attempts to write a batch that were tried again");
+    this.splits = this.meter("splits", "batch-split", "failing batches split in half");
+    this.failures = this.meter("failures", "record-failure",
+        "records that could not be written, sent to the dead letter queue or failing the task");
+  }
+
+  /**
+   * @param type the type of the records prepared, see {@link Profiling#typeName(List)}
+   */
+  public void recordPrepare(final String type, final long nanos) {
+    this.prepareTime.record(nanos / 1e6);
+    this.type(type).prepareTime.record(nanos / 1e6);
+  }
+
+  public void recordBatch(final List<Query> batch, final long bindNanos, final long executeNanos) {
+    this.records.record(batch.size());
+    this.batches.record();
+    this.batchSize.record(batch.size());
+    this.bindTime.record(bindNanos / 1e6);
+    this.executeTime.record(executeNanos / 1e6);
+    final TypeSensors batchType = this.type(Profiling.typeName(batch));
+    batchType.bindTime.record(bindNanos / 1e6);
+    batchType.executeTime.record(executeNanos / 1e6);
+    String type = null;
+    int count = 0;
+    for (final Query query : batch) {
+      final String next = query.getPlan().getTableId().getTableName();
+      if (!next.equals(type)) {
+        if (type != null) {
+          this.type(type).records.record(count);
+        }
+        type = next;
+        count = 0;
+      }
+      count++;
+    }
+    if (type != null) {
+      this.type(type).records.record(count);
+    }
+  }
+
+  public void recordAttempt() {
+    this.attempts.record();
+  }
+
+  public void recordRetry() {
+    this.retries.record();
+  }
+
+  public void recordSplit() {
+    this.splits.record();
+  }
+
+  public void recordFailure(final Query query) {
+    this.failures.record();
+    this.type(query.getPlan().getTableId().getTableName()).failures.record();
+  }
+
+  /**
+   * Registers a value read when the metric is reported, such as a cache hit ratio or a queue size.
+   */
+  public void gauge(final String name, final String description, final Supplier<? extends Number> value) {
+    this.metrics.addMetric(this.metrics.metricName(name, TASK_GROUP, description, this.tags),
+        (Gauge<Double>) (config, now) -> value.get().doubleValue());
+  }
+
+  private Sensor meter(final String sensor, final String name, final String description) {
+    final Sensor s = this.metrics.sensor(this.sensorName(sensor));
+    s.add(new Meter(this.metrics.metricName(name + "-rate", TASK_GROUP, "The per-second rate of " + description, this.tags),
+        this.metrics.metricName(name + "-total", TASK_GROUP, "The total number of " + description, this.tags)));
+    return s;
+  }
+
+  private Sensor distribution(final String sensor, final String name, final String description, final double max) {
+    return this.distribution(sensor, TASK_GROUP, this.tags, name, description, max);
+  }
+
+  private Sensor distribution(final String sensor,
+                              final String group,
+                              final Map<String, String> tags,
+                              final String name,
+                              final String description,
+                              final double max) {
+    final Sensor s = this.metrics.sensor(this.sensorName(sensor));
+    s.add(this.metrics.metricName(name + "-avg", group, "The average " + description, tags), new Avg());
+    s.add(this.metrics.metricName(name + "-max", group, "The maximum " + description, tags), new Max());
+    s.add(new Percentiles(HISTOGRAM_BYTES, max, Percentiles.BucketSizing.LINEAR,
+        new Percentile(this.metrics.metricName(name + "-p50", group, "The median " + description, tags), 50.0),
+        new Percentile(this.metrics.metricName(name + "-p95", group, "The 95th percentile " + description, tags), 95.0),
+        new Percentile(this.metrics.metricName(name + "-p99", group, "The 99th percentile " + description, tags), 99.0)));
+    return s;
+  }
+
+  private TypeSensors type(final String type) {
+    return this.types.computeIfAbsent(type, TypeSensors::new);
+  }
+
+  private String sensorName(final String sensor) {
+    return "tigergraph-sink." + this.tags.get("connector") + "." + this.tags.get("task") + "." + sensor;
+  }
+
+  public void close() {
+    this.metrics.close();
+  }
+
+  private final class TypeSensors {
+    private final Sensor records;
+    private final Sensor failures;
+    private final Sensor prepareTime;
+    private final Sensor bindTime;
+    private final Sensor executeTime;
+
+    private TypeSensors(final String type) {
+      final Map<String, String> typeTags = new LinkedHashMap<>(SinkMetrics.this.tags);
+      typeTags.put("type", type);
+      final Metrics metrics = SinkMetrics.this.metrics;
+      this.records = metrics.sensor(SinkMetrics.this.sensorName("records." + type));
+      this.records.add(new Meter(
+          metrics.metricName("record-send-rate", TYPE_GROUP, "The per-second rate of records of the type written", typeTags),
+          metrics.metricName("record-send-total", TYPE_GROUP, "The total number of records of the type written", typeTags)));
+      this.failures = metrics.sensor(SinkMetrics.this.sensorName("failures." + type));
+      this.failures.add(metrics.metricName("record-failure-total", TYPE_GROUP,
+          "The total number of records of the type that could not be written", typeTags), new CumulativeSum());
+      this.prepareTime = SinkMetrics.this.distribution("prepare-time." + type, TYPE_GROUP, typeTags,
+          "prepare-time-ms", "time spent turning a put() of the type into batches", MAX_LATENCY_MS);
+      this.bindTime = SinkMetrics.this.distribution("bind-time." + type, TYPE_GROUP, typeTags,
+          "bind-time-ms", "time spent binding or serialising a batch of the type", MAX_LATENCY_MS);
+      this.executeTime = SinkMetrics.this.distribution("execute-time." + type, TYPE_GROUP, typeTags,
+          "execute-time-ms", "time spent sending a batch of the type to TigerGraph and waiting for the reply",
+          MAX_LATENCY_MS);
+    }
+  }
+}
@@ -0,0 +1,567 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import io.treutech.TigerGraphConnector.util.Profiling;
+import io.treutech.TigerGraphConnector.util.Query;
+import io.treutech.TigerGraphConnector.util.QueryBuilder;
+import io.treutech.TigerGraphConnector.util.WritePlanCache;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.errors.RetriableException;
+import org.apache.kafka.connect.sink.ErrantRecordReporter;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes sink records to TigerGraph: records are spread over the connections of a {@link ConnectionPool}
+ * by primary id, grouped into batches that can be written together, vertices ahead of edges, sent in batches
+ * sized by a {@link BatchSizeController}, each batch waits for the configured rate limits, and a batch TigerGraph
+ * rejects is split to isolate the records that fail. A TigerGraph that cannot be reached is retried with jittered
+ * exponential backoff, then fails the write with a {@link RetriableException}, so Connect redelivers the records
+ * later. With more than one connection the connections are written to in parallel, and
+ * {@link #write(Collection)} returns once all of them are done.
+ * {@link #write(Collection)}, {@link #connect()} and {@link #close()} are called by one thread at a time, the task
+ * thread or the async writer thread. That thread turns the records into batches, through the write plan cache that
+ * only it uses, and hands the batches of each connection to a writer thread of their own. Each connection is only
+ * used by its writer thread, while the rate limits, the batch size, the change detector, the health and the
+ * counters are shared by all of them and thread safe. {@link #isOverloaded()}, {@link #resetHealth()} and the
+ * getters may be called from any thread, also during a write.
+ */
+public class SinkWriter {
+  private static final Logger log = LoggerFactory.getLogger(SinkWriter.class);
+  private static final long MAX_BACKOFF_MS = 60000L;
+  private static final Comparator<Query> EDGE_ORDER = Comparator
+      .comparing(SinkWriter::isEdge)
+      .thenComparing(query -> isEdge(query) ? query.getPlan().getTableId().getTableName() : "")
+      .thenComparing((left, right) -> isEdge(left) && isEdge(right)
+          ? compareIds(left.getPlan().getPrimaryId(left.getRecord()), right.getPlan().getPrimaryId(right.getRecord()))
+          : 0);
+  private final TGSinkConfig config;
+  private final WritePlanCache plans;
+  private final ConnectionPool pool;
+  private final ErrantRecordReporter reporter;
+  private final BatchSizeController batchSize;
+  private final ChangeDetector changes;
+  private final TokenBucket recordLimit;
+  private final TokenBucket byteLimit;
+  private final WriteHealth health;
+  private final SinkMetrics metrics;
+  private final Queue<Future<Void>> reports = new ConcurrentLinkedQueue<>();
+  private final LongAdder attempts = new LongAdder();
+  private final LongAdder failedAttempts = new LongAdder();
+  private final LongAdder splits = new LongAdder();
+  private final LongAdder reported = new LongAdder();
+  private ExecutorService executor;
+
+  /**
+   * @param reporter the dead letter queue failed records are sent to, or null to fail the task instead
+   */
+  public SinkWriter(final TGSinkConfig config, final ErrantRecordReporter reporter, final SinkMetrics metrics) {
+    this.config = config;
+    this.reporter = reporter;
+    this.metrics = metrics;
+    this.plans = new WritePlanCache(config, config.planCacheSize);
+    this.pool = new ConnectionPool(config);
+    this.batchSize = new BatchSizeController(config.batchMaxRecords, config.targetLatencyMs);
+    this.changes = config.changeDetectionEntries > 0 ? new ChangeDetector(config.changeDetectionEntries) : null;
+    this.recordLimit = config.rateLimitRecordsPerSec > 0 ? new TokenBucket(config.rateLimitRecordsPerSec) : null;
+    this.byteLimit = config.rateLimitBytesPerSec > 0 ? new TokenBucket(config.rateLimitBytesPerSec) : null;
+    this.health = new WriteHealth(config.throttleLatencyMs, config.throttleErrorPercent);
+    metrics.gauge("batch-size-current", "The number of records currently sent per batch", this.batchSize::batchSize);
+    metrics.gauge("statement-cache-hit-ratio", "The share of prepared statements served from the cache",
+        this.pool::statementCacheHitRatio);
+    metrics.gauge("plan-cache-hit-ratio", "The share of write plans served from the cache", () -> {
+      final long lookups = this.plans.getHits() + this.plans.getMisses();
+      return lookups > 0 ? (double) this.plans.getHits() / lookups : Double.NaN;
+    });
+    metrics.gauge("record-unchanged-total", "The total number of vertex records skipped because nothing changed",
+        this::getUnchanged);
+  }
+
+  public void connect() throws SQLException {
+    this.pool.connect();
+    if (this.pool.size() > 1) {
+      final AtomicInteger threads = new AtomicInteger();
+      this.executor = Executors.newFixedThreadPool(this.pool.size(), runnable -> {
+        final Thread thread = new Thread(runnable, "tigergraph-sink-connection-" + threads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  public void write(final Collection<SinkRecord> records) {
+    final long start = System.nanoTime();
+    final Object event = Profiling.beginPrepare();
+    final List<Batches> slots = new ArrayList<>(this.pool.size());
+    for (int i = 0; i < this.pool.size(); i++) {
+      slots.add(new Batches(this.config.writerMode == TGSinkConfig.WriterMode.JDBC));
+    }
+    final Set<Long> pending = this.changes != null ? new HashSet<>() : null;
+    int used = -1;
+    int written = 0;
+    String type = null;
+    for (final SinkRecord record : records) {
+      final Query query = QueryBuilder.generateQuery(record, this.config, this.plans);
+      final String next = query.getPlan().getTableId().getTableName();
+      type = type == null || type.equals(next) ? next : Profiling.MIXED_TYPES;
+      if (this.changes != null && this.changes.isUnchanged(query, pending)) {
+        continue;
+      }
+      written++;
+      final Object id = query.getPlan().getPrimaryId(record);
+      final int slot = this.pool.route(query.getPlan(), id);
+      slots.get(slot).add(this.batchKey(query), query, id);
+      used = used == -1 || used == slot ? slot : -2;
+    }
+    Profiling.endPrepare(event, records.size(), written);
+    if (used == -1) {
+      return;
+    }
+    this.metrics.recordPrepare(type, System.nanoTime() - start);
+    for (final Batches batches : slots) {
+      batches.order();
+    }
+    if (used >= 0) {
+      this.write(used, slots.get(used), true, true);
+      this.awaitReports();
+      return;
+    }
+    // an edge is routed by its own id, away from its endpoints, so the vertices of every connection are written
+    // before the edges of any
+    this.write(slots, true, false);
+    this.write(slots, false, true);
+    this.awaitReports();
+  }
+
+  private void write(final List<Batches> slots, final boolean vertices, final boolean edges) {
+    final List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < slots.size(); i++) {
+      final int slot = i;
+      if (!slots.get(slot).isEmpty()) {
+        futures.add(this.executor.submit(() -> this.write(slot, slots.get(slot), vertices, edges)));
+      }
+    }
+    RuntimeException failure = null;
+    for (final Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        if (failure == null) {
+          failure = e.getCause() instanceof ConnectException
+              ? (ConnectException) e.getCause()
+              : new ConnectException("Failed to write to TigerGraph", e.getCause());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        if (failure == null) {
+          failure = new ConnectException("Interrupted while waiting for TigerGraph writes", e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * JDBC batches share one prepared INSERT, RESTPP upserts can mix every vertex and edge type,
+   * and a loading job request feeds the file of one type.
+   */
+  private String batchKey(final Query query) {
+    switch (this.config.writerMode) {
+      case RESTPP:
+        return "";
+      case LOADING_JOB:
+        return query.getPlan().getTableId().getTableName();
+      case JDBC:
+      default:
+        return query.getBody();
+    }
+  }
+
+  /**
+   * Writes the vertices, the edges, or both, of the batches of one connection.
+   */
+  private void write(final int slot, final Batches batches, final boolean vertices, final boolean edges) {
+    final int maxRecords = this.batchSize.batchSize();
+    for (final List<List<Query>> round : batches.ordered) {
+      for (final List<Query> group : round) {
+        int firstEdge = 0;
+        while (firstEdge < group.size() && !isEdge(group.get(firstEdge))) {
+          firstEdge++;
+        }
+        final List<Query> queries = group.subList(vertices ? 0 : firstEdge, edges ? group.size() : firstEdge);
+        if (this.config.writerMode == TGSinkConfig.WriterMode.LOADING_JOB) {
+          this.writeChunks(slot, queries);
+          continue;
+        }
+        for (int from = 0; from < queries.size(); from += maxRecords) {
+          this.write(slot, queries.subList(from, (int) Math.min((long) from + maxRecords, queries.size())));
+        }
+      }
+    }
+  }
+
+  /**
+   * Cuts loading job requests by size instead, once they reach about {@code tigergraph.sink.loading.job.chunk.bytes}.
+   * Each chunk is a batch of its own, so a chunk with rejected lines is split without posting the others again.
+   */
+  private void writeChunks(final int slot, final List<Query> queries) {
+    int from = 0;
+    long bytes = 0L;
+    for (int i = 0; i < queries.size(); i++) {
+      bytes += queries.get(i).getPlan().estimateBytes(queries.get(i).getRecord());
+      if (bytes >= this.config.loadingJobChunkBytes) {
+        this.write(slot, queries.subList(from, i + 1));
+        from = i + 1;
+        bytes = 0L;
+      }
+    }
+    if (from < queries.size()) {
+      this.write(slot, queries.subList(from, queries.size()));
+    }
+  }
+
+  /**
+   * Puts the groups of vertices before the groups of edges, so that edges find their endpoints already written,
+   * and sorts a group by element kind, vertices first, then its edges by edge type and source vertex id for
+   * locality on the server. Both sorts are stable, and {@link Batches} never puts two groups holding the same
+   * vertex or edge in one round, so updates of the same vertex or edge stay in arrival order.
+   */
+  private static List<List<Query>> writeOrder(final Collection<List<Query>> batches) {
+    final List<List<Query>> ordered = new ArrayList<>(batches.size());
+    for (final List<Query> queries : batches) {
+      boolean edges = false;
+      for (final Query query : queries) {
+        if (isEdge(query)) {
+          edges = true;
+          break;
+        }
+      }
+      if (edges) {
+        queries.sort(EDGE_ORDER);
+      }
+      ordered.add(queries);
+    }
+    ordered.sort(Comparator.comparing(queries -> isEdge(queries.get(0))));
+    return ordered;
+  }
+
+  private static boolean isEdge(final Query query) {
+    return query.getPlan().getElementType().startsWith("e");
+  }
+
+  /**
+   * Orders ids by class name first, then by value within a class, so that ids of mixed types still sort consistently.
+   */
+  @SuppressWarnings("unchecked")
+  private static int compareIds(final Object left, final Object right) {
+    if (left == null || right == null) {
+      return left == null ? (right == null ? 0 : -1) : 1;
+    }
+    if (left.getClass() != right.getClass()) {
+      return left.getClass().getName().compareTo(right.getClass().getName());
+    }
+    if (left instanceof Comparable) {
+      return ((Comparable<Object>) left).compareTo(right);
+    }
+    return String.valueOf(left).compareTo(String.valueOf(right));
+  }
+
+  /**
+   * Writes the batch once. A batch that TigerGraph rejects is split in half, and each half is tried once and split
+   * again on failure, down to single records, which are reported to the dead letter queue, or fail the task when
+   * there is none. Errors that are not SQL errors come from the record itself and are handled the same way.
+   * Only transport failures are retried, up to {@code tigergraph.sink.max.retries} attempts with backoff, and are
+   * never split: once they used up the attempts the write fails with a {@link RetriableException}.
+   * The rate limits are charged here only, once per record, whatever the number of attempts and splits.
+   */
+  private void write(final int slot, final List<Query> batch) {
+    if (this.recordLimit != null) {
+      this.recordLimit.acquire(batch.size());
+    }
+    if (this.byteLimit != null) {
+      this.byteLimit.acquire(estimateBytes(batch));
+    }
+    this.writeOrSplit(slot, batch);
+  }
+
+  private void writeOrSplit(final int slot, final List<Query> batch) {
+    final Exception failure = this.attempt(slot, batch);
+    if (failure == null) {
+      return;
+    }
+    if (batch.size() == 1) {
+      this.report(batch.get(0), failure);
+      return;
+    }
+    this.splits.increment();
+    this.metrics.recordSplit();
+    final int mid = batch.size() / 2;
+    this.writeOrSplit(slot, batch.subList(0, mid));
+    this.writeOrSplit(slot, batch.subList(mid, batch.size()));
+  }
+
+  /**
+   * A rough size of the batch on the wire, the sum of its records' {@code WritePlan.estimateBytes}.
+   */
+  private static long estimateBytes(final List<Query> batch) {
+    long bytes = 0L;
+    for (final Query query : batch) {
+      bytes += query.getPlan().estimateBytes(query.getRecord());
+    }
+    return bytes;
+  }
+
+  private int maxAttempts() {
+    return Math.max(1, this.config.maxRetries);
+  }
+
+  /**
+   * @return the error the batch was rejected with, or null once it is written
+   */
+  private Exception attempt(final int slot, final List<Query> batch) {
+    long backoffMs = this.config.retryBackoffMs;
+    for (int attempt = 1; ; attempt++) {
+      this.attempts.increment();
+      this.metrics.recordAttempt();
+      final long start = System.nanoTime();
+      final Object event = Profiling.beginWrite();
+      try {
+        final WriteConnection connection = this.pool.connection(slot);
+        connection.write(batch);
+        final long nanos = System.nanoTime() - start;
+        Profiling.endWrite(event, batch, this.config.writerMode.name(), connection.getBindNanos(), attempt, true);
+        this.batchSize.record(nanos, true);
+        this.health.record(nanos, true);
+        this.metrics.recordBatch(batch, connection.getBindNanos(), nanos - connection.getBindNanos());
+        if (this.changes != null) {
+          this.changes.remember(batch);
+        }
+        return null;
+      } catch (SQLException sqle) {
+        Profiling.endWrite(event, batch, this.config.writerMode.name(), 0L, attempt, false);
+        final boolean transport = TransportErrors.isTransport(sqle);
+        // a rejected record fails whatever the batch size and says nothing about how loaded TigerGraph is,
+        // so only failures to reach TigerGraph shrink batches, count towards throttling and reconnect
+        if (transport) {
+          this.batchSize.record(System.nanoTime() - start, false);
+          this.health.record(System.nanoTime() - start, false);
+          this.pool.markBroken(slot);
+        }
+        this.failedAttempts.increment();
+        final int maxAttempts = transport ? this.maxAttempts() : 1;
+        StringBuilder messages = new StringBuilder();
+        for (Throwable e : sqle) {
+          messages.append(e).append(System.lineSeparator());
+        }
+        log.warn("Failed to write batch of {} records for query {}, attempt {} of {}: {}",
+            batch.size(), batch.get(0).getBody(), attempt, maxAttempts, messages);
+        if (attempt >= maxAttempts) {
+          if (transport) {
+            throw new RetriableException("TigerGraph could not be reached after " + attempt + " attempts", sqle);
+          }
+          return sqle;
+        }
+      } catch (ConnectException | ClassCastException | UnsupportedOperationException e) {
+        Profiling.endWrite(event, batch, this.config.writerMode.name(), 0L, attempt, false);
+        this.failedAttempts.increment();
+        log.warn("Failed to write batch of {} records for query {}: {}", batch.size(), batch.get(0).getBody(), e.toString());
+        return e;
+      }
+      this.metrics.recordRetry();
+      backoff(backoffMs);
+      backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+    }
+  }
+
+  private void report(final Query query, final Exception failure) {
+    final SinkRecord record = query.getRecord();
+    this.metrics.recordFailure(query);
+    if (this.reporter == null) {
+      log.error("Failed to write record {}-{}@{} and no dead letter queue is configured",
+          record.topic(), record.kafkaPartition(), record.kafkaOffset());
+      throw failure instanceof ConnectException ? (ConnectException) failure : new ConnectException(failure);
+    }
+    log.warn("Sending record {}-{}@{} to the dead letter queue: {}",
+        record.topic(), record.kafkaPartition(), record.kafkaOffset(), failure.toString());
+    this.reported.increment();
+    this.reports.add(this.reporter.report(record, failure));
+  }
+
+  /**
+   * Sleeps for a random time between half and all of the backoff, so that tasks failing together do not retry
+   * in lockstep.
+   */
+  private static void backoff(final long backoffMs) {
+    final long sleepMs = backoffMs / 2 + ThreadLocalRandom.current().nextLong(backoffMs / 2 + 1);
+    try {
+      Thread.sleep(sleepMs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ConnectException("Interrupted while waiting to retry a TigerGraph write", e);
+    }
+  }
+
+  /**
+   * Waits for the records reported during the last write to reach the dead letter queue, so that their offsets
+   * can be committed.
+   */
+  private void awaitReports() {
+    Future<Void> report;
+    while ((report = this.reports.poll()) != null) {
+      try {
+        report.get();
+      } catch (ExecutionException e) {
+        throw new ConnectException("Failed to report a record to the dead letter queue", e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ConnectException("Interrupted while reporting records to the dead letter queue", e);
+      }
+    }
+  }
+
+  /**
+   * Whether recent writes were slow or failing enough that the task should stop consuming for a while.
+   */
+  public boolean isOverloaded() {
+    return this.health.isOverloaded();
+  }
+
+  public void resetHealth() {
+    this.health.reset();
+  }
+
+  /**
+   * The number of records currently sent per batch, see {@link BatchSizeController}.
+   */
+  public int getBatchSize() {
+    return this.batchSize.batchSize();
+  }
+
+  /**
+   * The number of vertex records skipped because they would not change anything, see {@link ChangeDetector}.
+   */
+  public long getUnchanged() {
+    return this.changes != null ? this.changes.getUnchanged() : 0L;
+  }
+
+  public long getAttempts() {
+    return this.attempts.sum();
+  }
+
+  public long getFailedAttempts() {
+    return this.failedAttempts.sum();
+  }
+
+  public long getSplits() {
+    return this.splits.sum();
+  }
+
+  public long getReported() {
+    return this.reported.sum();
+  }
+
+  public String toString() {
+    return "{ attempts='" + this.getAttempts() +
+        "', failedAttempts='" + this.getFailedAttempts() +
+        "', splits='" + this.getSplits() +
+        "', reported='" + this.getReported() + "'}";
+  }
+
+  public void close() {
+    log.info("Write plan cache: {}", this.plans);
+    log.info("Writes: {}, batch size: {}, health: {}", this, this.batchSize, this.health);
+    if (this.changes != null) {
+      log.info("Change detection: {}", this.changes);
+    }
+    if (this.executor != null) {
+      this.executor.shutdownNow();
+      try {
+        this.executor.awaitTermination(this.config.retryBackoffMs, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    this.pool.close();
+  }
+
+  /**
+   * The batches of one connection, grouped by {@link #batchKey(Query)} in rounds that are written one after the other.
+   * Records of the same vertex or edge, by type and primary id, that land in different groups would be reordered
+   * by writing one group after the other, so such a record starts a new round instead. Only JDBC groups records
+   * of the same type apart, by INSERT statement, so the other writers keep everything in one round.
+   */
+  private static final class Batches {
+    private final List<Map<String, List<Query>>> rounds = new ArrayList<>();
+    private final Map<List<Object>, String> groups;
+    private final List<List<List<Query>>> ordered = new ArrayList<>();
+
+    private Batches(final boolean splitRounds) {
+      this.groups = splitRounds ? new HashMap<>() : null;
+      this.rounds.add(new LinkedHashMap<>());
+    }
+
+    private void add(final String key, final Query query, final Object id) {
+      if (this.groups != null) {
+        final List<Object> element = Arrays.asList(query.getPlan().getTableId().getTableName(), id);
+        final String group = this.groups.put(element, key);
+        if (group != null && !group.equals(key)) {
+          this.groups.clear();
+          this.groups.put(element, key);
+          this.rounds.add(new LinkedHashMap<>());
+        }
+      }
+      this.rounds.get(this.rounds.size() - 1).computeIfAbsent(key, k -> new ArrayList<>()).add(query);
+    }
+
+    /**
+     * Puts the groups of each round in {@link #writeOrder(Collection)}, once every record is added.
+     */
+    private void order() {
+      for (final Map<String, List<Query>> round : this.rounds) {
+        this.ordered.add(writeOrder(round.values()));
+      }
+    }
+
+    private boolean isEmpty() {
+      return this.rounds.get(0).isEmpty();
+    }
+  }
+}
@@ -17,6 +17,7 @@ import io.treutech.TigerGraphConnector.util.TGBaseConfig;
 import io.treutech.TigerGraphConnector.util.TGConfigException;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -34,23 +35,153 @@ public class TGSinkConfig extends TGBaseConfig {
   private static final ConfigDef.Range NON_NEGATIVE_INT_VALIDATOR = Range.atLeast(0);
   public final int maxRetries = this.getInt("tigergraph.sink.max.retries");
   public final int retryBackoffMs = this.getInt("tigergraph.sink.retry.backoff.ms");
+  public final int batchMaxRecords = this.getInt("tigergraph.sink.batch.max.records");
+  public final int targetLatencyMs = this.getInt("tigergraph.sink.target.latency.ms");
+  public final int statementCacheSize = this.getInt("tigergraph.sink.statement.cache.size");
+  public final int planCacheSize = this.getInt("tigergraph.sink.plan.cache.size");
+  public final TGSinkConfig.WriterMode writerMode = TGSinkConfig.WriterMode.valueOf(this.getString("tigergraph.sink.writer").toUpperCase());
+  public final String loadingJob = this.getString("tigergraph.sink.loading.job");
+  public final Map<String, String> loadingJobFiles = parseLoadingJobFiles(this.getList("tigergraph.sink.loading.job.files"));
+  public final boolean loadingJobJson = "json".equalsIgnoreCase(this.getString("tigergraph.sink.loading.job.format"));
+  public final boolean loadingJobHeader = this.getBoolean("tigergraph.sink.loading.job.header");
+  public final int loadingJobChunkBytes = this.getInt("tigergraph.sink.loading.job.chunk.bytes");
+  public final TGSinkConfig.Compression compression = TGSinkConfig.Compression.valueOf(this.getString("tigergraph.sink.compression").toUpperCase());
+  public final int compressionMinBytes = this.getInt("tigergraph.sink.compression.min.bytes");
+  public final int connections = this.getInt("tigergraph.sink.connections");
+  public final boolean asyncEnabled = this.getBoolean("tigergraph.sink.async.enabled");
+  public final int asyncQueueMaxRecords = this.getInt("tigergraph.sink.async.queue.max.records");
+  public final int rateLimitRecordsPerSec = this.getInt("tigergraph.sink.rate.limit.records.per.sec");
+  public final int rateLimitBytesPerSec = this.getInt("tigergraph.sink.rate.limit.bytes.per.sec");
+  public final int throttleLatencyMs = this.getInt("tigergraph.sink.throttle.latency.ms");
+  public final int throttleErrorPercent = this.getInt("tigergraph.sink.throttle.error.percent");
+  public final int throttlePauseMs = this.getInt("tigergraph.sink.throttle.pause.ms");
+  public final int changeDetectionEntries = this.getInt("tigergraph.sink.change.detection.entries");
+  public final boolean coalesceEnabled = this.getBoolean("tigergraph.sink.coalesce.enabled");
+  public final int coalesceWindowMs = this.getInt("tigergraph.sink.coalesce.window.ms");
   public final TGSinkConfig.PrimaryKeyMode pkMode = TGSinkConfig.PrimaryKeyMode.valueOf(this.getString("pk.mode").toUpperCase());
   public final List<String> pkFields = this.getList("pk.fields");
 
   public TGSinkConfig(final Map props) throws TGConfigException {
     super(getConfig(), props);
+    if (this.writerMode == WriterMode.LOADING_JOB) {
+      if (this.loadingJob.isEmpty()) {
+        throw new TGConfigException("Loading job not set.");
+      } else if (this.loadingJobFiles.isEmpty()) {
+        throw new TGConfigException("Loading job files not set.");
+      }
+    }
+  }
+
+  private static Map<String, String> parseLoadingJobFiles(final List<String> entries) {
+    final Map<String, String> files = new HashMap<>();
+    for (final String entry : entries) {
+      final int colon = entry.indexOf(':');
+      if (colon <= 0 || colon == entry.length() - 1) {
+        throw new ConfigException("tigergraph.sink.loading.job.files", entry, "Expected <type>:<filename variable>");
+      }
+      files.put(entry.substring(0, colon).trim(), entry.substring(colon + 1).trim());
+    }
+    return files;
   }
 
   public static ConfigDef getConfig() {
     return (new ConfigDef(CONFIG_DEF))
         .define("tigergraph.sink.max.retries", Type.INT, 3,
             NON_NEGATIVE_INT_VALIDATOR, Importance.MEDIUM,
-            "The maximum number of times to retry on errors before failing the task.",
+            "The maximum number of attempts to write a batch when TigerGraph cannot be reached, after which the records are handed back to Connect to be retried. A batch that TigerGraph rejects is not retried but split to isolate the failing records, which are sent to the dead letter queue when ``errors.tolerance`` is ``all`` and fail the task otherwise.",
             "TigerGraph", 1, Width.SHORT, "Maximum Retries")
         .define("tigergraph.sink.retry.backoff.ms", Type.INT, 1000,
             NON_NEGATIVE_INT_VALIDATOR, Importance.MEDIUM,
-            "The time in milliseconds to wait following an error before a retry attempt is made.",
+            "The time in milliseconds to wait following an error before a retry attempt is made. It doubles with every attempt, and a random part of it is skipped to spread out retries.",
             "TigerGraph", 1, Width.SHORT, "Retry Backoff (millis)")
+        .define("tigergraph.sink.batch.max.records", Type.INT, 500,
+            Range.atLeast(1), Importance.MEDIUM,
+            "The maximum number of records sent to TigerGraph in a single batched write.",
+            "TigerGraph", 1, Width.SHORT, "Maximum Batch Records")
+        .define("tigergraph.sink.target.latency.ms", Type.INT, 0,
+            NON_NEGATIVE_INT_VALIDATOR, Importance.MEDIUM,
+            "The p95 latency in milliseconds of a batched write the batch size is adapted to: it grows while writes stay within the target and is halved on failures and latency spikes, up to ``tigergraph.sink.batch.max.records``. 0 always writes batches of ``tigergraph.sink.batch.max.records``.",
+            "TigerGraph", 1, Width.SHORT, "Target Write Latency (millis)")
+        .define("tigergraph.sink.statement.cache.size", Type.INT, 32,
+            Range.atLeast(1), Importance.LOW,
+            "The maximum number of prepared INSERT statements cached per task. The least recently used statement is closed when the cache is full.",
+            "TigerGraph", 1, Width.SHORT, "Statement Cache Size")
+        .define("tigergraph.sink.plan.cache.size", Type.INT, 256,
+            Range.atLeast(1), Importance.LOW,
+            "The maximum number of compiled write plans, one per value schema and type name, cached per task.",
+            "TigerGraph", 1, Width.SHORT, "Write Plan Cache Size")
+        .define("tigergraph.sink.writer", Type.STRING, "jdbc",
+            EnumValidator.in(WriterMode.values()), Importance.MEDIUM,
+            "How records are written to TigerGraph. Supported modes are:\n``jdbc``\n    INSERT statements through the TigerGraph JDBC driver.\n``restpp``\n    One RESTPP upsert request per batch of vertices and edges.\n``loading_job``\n    CSV or JSON lines posted to the loading job ``tigergraph.sink.loading.job``.",
+            "TigerGraph", 1, Width.SHORT, "Writer Mode")
+        .define("tigergraph.sink.loading.job", Type.STRING, "", Importance.MEDIUM,
+            "The loading job records are posted to when ``tigergraph.sink.writer`` is ``loading_job``.",
+            "TigerGraph", 1, Width.MEDIUM, "Loading Job")
+        .define("tigergraph.sink.loading.job.files", Type.LIST, "", Importance.MEDIUM,
+            "List of comma-separated ``<type>:<filename variable>`` pairs mapping each vertex or edge type to the ``DEFINE FILENAME`` variable of the loading job that loads it.",
+            "TigerGraph", 1, Width.LONG, "Loading Job Files")
+        .define("tigergraph.sink.loading.job.format", Type.STRING, "csv",
+            ConfigDef.ValidString.in("csv", "json"), Importance.LOW,
+            "The format records are sent to the loading job in: ``csv`` lines with columns in INSERT order, or ``json`` lines keyed by column name.",
+            "TigerGraph", 1, Width.SHORT, "Loading Job Format")
+        .define("tigergraph.sink.loading.job.header", Type.BOOLEAN, false, Importance.LOW,
+            "Start every CSV request with a header line of column names, for loading jobs that use ``header=\"true\"``.",
+            "TigerGraph", 1, Width.SHORT, "Loading Job Header")
+        .define("tigergraph.sink.loading.job.chunk.bytes", Type.INT, 8 * 1024 * 1024,
+            Range.atLeast(1024), Importance.LOW,
+            "The approximate size in bytes at which the records of a type are cut into another loading job request. Each request is retried and split on its own, so lines rejected in one request do not post the others again.",
+            "TigerGraph", 1, Width.SHORT, "Loading Job Chunk Bytes")
+        .define("tigergraph.sink.compression", Type.STRING, "none",
+            EnumValidator.in(Compression.values()), Importance.LOW,
+            "How request bodies of the ``restpp`` and ``loading_job`` writers are compressed, ``gzip`` or ``none``. The JDBC driver sends its own requests uncompressed.",
+            "TigerGraph", 1, Width.SHORT, "Compression")
+        .define("tigergraph.sink.compression.min.bytes", Type.INT, 1024,
+            NON_NEGATIVE_INT_VALIDATOR, Importance.LOW,
+            "The size in bytes below which request bodies are sent uncompressed.",
+            "TigerGraph", 1, Width.SHORT, "Compression Threshold (bytes)")
+        .define("tigergraph.sink.connections", Type.INT, 1,
+            Range.atLeast(1), Importance.MEDIUM,
+            "The number of TigerGraph connections each task writes through in parallel. Records are spread over the connections by vertex id, so writes to the same vertex stay in order.",
+            "TigerGraph", 1, Width.SHORT, "Connections per Task")
+        .define("tigergraph.sink.async.enabled", Type.BOOLEAN, false, Importance.MEDIUM,
+            "Write to TigerGraph from a background thread so that consuming from Kafka and writing overlap. Offsets are only committed once their records have been written.",
+            "TigerGraph", 1, Width.SHORT, "Asynchronous Writes")
+        .define("tigergraph.sink.async.queue.max.records", Type.INT, 10000,
+            Range.atLeast(1), Importance.LOW,
+            "The number of records waiting to be written above which the task pauses its partitions when asynchronous writes are enabled. Consumption resumes once half of them have been written.",
+            "TigerGraph", 1, Width.SHORT, "Asynchronous Queue Size")
+        .define("tigergraph.sink.rate.limit.records.per.sec", Type.INT, 0,
+            NON_NEGATIVE_INT_VALIDATOR, Importance.LOW,
+            "The maximum number of records per second a task writes, across all of its connections. 0 is unlimited.",
+            "TigerGraph", 1, Width.SHORT, "Record Rate Limit")
+        .define("tigergraph.sink.rate.limit.bytes.per.sec", Type.INT, 0,
+            NON_NEGATIVE_INT_VALIDATOR, Importance.LOW,
+            "The maximum number of bytes of record values per second a task writes, across all of its connections. 0 is unlimited.",
+            "TigerGraph", 1, Width.SHORT, "Byte Rate Limit")
+        .define("tigergraph.sink.throttle.latency.ms", Type.INT, 0,
+            NON_NEGATIVE_INT_VALIDATOR, Importance.LOW,
+            "The average write latency in milliseconds above which the task pauses its partitions for ``tigergraph.sink.throttle.pause.ms``. 0 disables the check.",
+            "TigerGraph", 1, Width.SHORT, "Throttle Latency (millis)")
+        .define("tigergraph.sink.throttle.error.percent", Type.INT, 0,
+            Range.between(0, 100), Importance.LOW,
+            "The percentage of failed writes above which the task pauses its partitions for ``tigergraph.sink.throttle.pause.ms``. 0 disables the check.",
+            "TigerGraph", 1, Width.SHORT, "Throttle Error Percentage")
+        .define("tigergraph.sink.throttle.pause.ms", Type.INT, 5000,
+            NON_NEGATIVE_INT_VALIDATOR, Importance.LOW,
+            "How long in milliseconds the task stops consuming when TigerGraph is overloaded.",
+            "TigerGraph", 1, Width.SHORT, "Throttle Pause (millis)")
+        .define("tigergraph.sink.change.detection.entries", Type.INT, 0,
+            Range.between(0, 1 << 26), Importance.LOW,
+            "The number of vertices whose attribute hash is kept, off heap at 16 bytes each, to skip writes of vertices that did not change since the task last wrote them. The least recently used vertex is forgotten first. 0 writes every record.",
+            "TigerGraph", 1, Width.SHORT, "Change Detection Entries")
+        .define("tigergraph.sink.coalesce.enabled", Type.BOOLEAN, false,
+            Importance.LOW,
+            "Collapse the records of the same vertex, by type and primary id, into the latest one before writing. Offsets are committed only once the coalesced records are written.",
+            "TigerGraph", 1, Width.SHORT, "Coalesce Vertex Writes")
+        .define("tigergraph.sink.coalesce.window.ms", Type.INT, 0,
+            NON_NEGATIVE_INT_VALIDATOR, Importance.LOW,
+            "The time in milliseconds records are held back for coalescing before they are written. 0 coalesces the records of each batch handed to the task.",
+            "TigerGraph", 1, Width.SHORT, "Coalesce Window (millis)")
         .define("pk.mode", Type.STRING, "none",
             EnumValidator.in(PrimaryKeyMode.values()), Importance.HIGH,
             "The primary key mode, also refer to ``pk.fields`` documentation for interplay. Supported modes are:\n``none``\n    No keys utilized.\n``record_key``\n    Field(s) from the record key are used, which may be a primitive or a struct.\n``record_value``\n    Field(s) from the record value are used, which must be a struct.",
@@ -96,6 +227,17 @@ public class TGSinkConfig extends TGBaseConfig {
 
   }
 
+  public enum WriterMode {
+    JDBC,
+    RESTPP,
+    LOADING_JOB
+  }
+
+  public enum Compression {
+    NONE,
+    GZIP
+  }
+
   public enum PrimaryKeyMode {
     NONE,
     RECORD_KEY,
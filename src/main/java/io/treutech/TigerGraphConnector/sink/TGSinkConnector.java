@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 public class TGSinkConnector extends SinkConnector {
   private static final Logger log = LoggerFactory.getLogger(TGSinkConnector.class);
   public TGSinkConfig sinkConfig;
+  private String name;
 
   public String version() {
     return Version.getVersion();
@@ -40,6 +41,7 @@ public class TGSinkConnector extends SinkConnector {
 
   public void start(Map props) {
     log.info("Starting TigerGraph Sink Connector");
+    this.name = String.valueOf(props.getOrDefault("name", "tigergraph-sink"));
     try {
       this.sinkConfig = new TGSinkConfig(props);
     } catch (TGConfigException var3) {
@@ -60,6 +62,8 @@ public class TGSinkConnector extends SinkConnector {
 
     for (int i = 0; i < maxTasks; i++) {
       Map<String, String> conf = new HashMap<>();
+      conf.put("tigergraph.connector.name", this.name);
+      conf.put("tigergraph.task.id", String.valueOf(i));
       if (!this.sinkConfig.tigergraph_ip.isEmpty()) {
         conf.put("tigergraph.ip", this.sinkConfig.tigergraph_ip);
       }
@@ -102,6 +106,31 @@ public class TGSinkConnector extends SinkConnector {
       if (this.sinkConfig.retryBackoffMs != 0) {
         conf.put("tigergraph.sink.retry.backoff.ms", String.valueOf(this.sinkConfig.retryBackoffMs));
       }
+      conf.put("tigergraph.sink.batch.max.records", String.valueOf(this.sinkConfig.batchMaxRecords));
+      conf.put("tigergraph.sink.target.latency.ms", String.valueOf(this.sinkConfig.targetLatencyMs));
+      conf.put("tigergraph.sink.statement.cache.size", String.valueOf(this.sinkConfig.statementCacheSize));
+      conf.put("tigergraph.sink.plan.cache.size", String.valueOf(this.sinkConfig.planCacheSize));
+      conf.put("tigergraph.sink.writer", this.sinkConfig.writerMode.name().toLowerCase());
+      if (this.sinkConfig.writerMode == TGSinkConfig.WriterMode.LOADING_JOB) {
+        conf.put("tigergraph.sink.loading.job", this.sinkConfig.loadingJob);
+        conf.put("tigergraph.sink.loading.job.files", String.join(",", this.sinkConfig.getList("tigergraph.sink.loading.job.files")));
+        conf.put("tigergraph.sink.loading.job.format", this.sinkConfig.loadingJobJson ? "json" : "csv");
+        conf.put("tigergraph.sink.loading.job.header", String.valueOf(this.sinkConfig.loadingJobHeader));
+        conf.put("tigergraph.sink.loading.job.chunk.bytes", String.valueOf(this.sinkConfig.loadingJobChunkBytes));
+      }
+      conf.put("tigergraph.sink.compression", this.sinkConfig.compression.name().toLowerCase());
+      conf.put("tigergraph.sink.compression.min.bytes", String.valueOf(this.sinkConfig.compressionMinBytes));
+      conf.put("tigergraph.sink.connections", String.valueOf(this.sinkConfig.connections));
+      conf.put("tigergraph.sink.async.enabled", String.valueOf(this.sinkConfig.asyncEnabled));
+      conf.put("tigergraph.sink.async.queue.max.records", String.valueOf(this.sinkConfig.asyncQueueMaxRecords));
+      conf.put("tigergraph.sink.rate.limit.records.per.sec", String.valueOf(this.sinkConfig.rateLimitRecordsPerSec));
+      conf.put("tigergraph.sink.rate.limit.bytes.per.sec", String.valueOf(this.sinkConfig.rateLimitBytesPerSec));
+      conf.put("tigergraph.sink.throttle.latency.ms", String.valueOf(this.sinkConfig.throttleLatencyMs));
+      conf.put("tigergraph.sink.throttle.error.percent", String.valueOf(this.sinkConfig.throttleErrorPercent));
+      conf.put("tigergraph.sink.throttle.pause.ms", String.valueOf(this.sinkConfig.throttlePauseMs));
+      conf.put("tigergraph.sink.change.detection.entries", String.valueOf(this.sinkConfig.changeDetectionEntries));
+      conf.put("tigergraph.sink.coalesce.enabled", String.valueOf(this.sinkConfig.coalesceEnabled));
+      conf.put("tigergraph.sink.coalesce.window.ms", String.valueOf(this.sinkConfig.coalesceWindowMs));
       configs.add(conf);
     }
     return configs;
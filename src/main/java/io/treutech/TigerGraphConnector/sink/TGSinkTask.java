@@ -13,19 +13,19 @@
 
 package io.treutech.TigerGraphConnector.sink;
 
-import io.treutech.TigerGraphConnector.util.Query;
-import io.treutech.TigerGraphConnector.util.QueryBuilder;
 import io.treutech.TigerGraphConnector.util.TGConfigException;
 import io.treutech.TigerGraphConnector.util.Version;
-import com.tigergraph.jdbc.Driver;
 
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.sink.ErrantRecordReporter;
 import org.apache.kafka.connect.sink.SinkRecord;
 import org.apache.kafka.connect.sink.SinkTask;
 import org.slf4j.Logger;
@@ -33,49 +33,109 @@ import org.slf4j.LoggerFactory;
 
 public class TGSinkTask extends SinkTask {
   private static final Logger log = LoggerFactory.getLogger(TGSinkTask.class);
-  private Connection con;
+  private static final long ASYNC_CLOSE_TIMEOUT_MS = 30000L;
   private TGSinkConfig config;
-  int remainingRetries;
+  private SinkWriter writer;
+  private AsyncSinkWriter asyncWriter;
+  private CoalescingBuffer coalescer;
+  private SinkMetrics metrics;
+  private boolean paused;
+  private long throttledUntilMs;
 
   public String version() {
     return Version.getVersion();
   }
 
   public void put(final Collection records) {
-    for (Object record : records) {
-      final SinkRecord sinkRecord = (SinkRecord) record;
-      Query query = QueryBuilder.generateQuery(sinkRecord, this.config);
-      int retryBackoffMs = this.config.retryBackoffMs;
-      int prevRemainingRetries = this.remainingRetries;
-      boolean success = false;
-      while (this.remainingRetries > 0 && !success) {
-        try {
-          query.genericRun(this.con);
-        } catch (SQLException sqle) {
-          StringBuilder messages = new StringBuilder();
-          for (Throwable e : sqle) {
-            messages.append(e).append(System.lineSeparator());
-          }
-          this.remainingRetries--;
-          if (this.remainingRetries == 0) {
-            log.error("Failed to write query for sinkRecord value {}, using a total of {}",
-                sinkRecord.value(), this.config.maxRetries);
-            throw new ConnectException(new SQLException(messages.toString()));
-          }
+    if (this.coalescer != null) {
+      final long now = System.currentTimeMillis();
+      this.coalescer.add(records, now);
+      if (this.coalescer.isDue(now)) {
+        this.flushCoalesced();
+      }
+    } else if (this.asyncWriter == null) {
+      this.writer.write(records);
+    } else {
+      this.asyncWriter.submit(records);
+    }
+    this.updatePause();
+  }
 
-          log.warn("Failed to write query for sinkRecord value {}, remaining retries={}",
-              sinkRecord.value(), this.remainingRetries, sqle);
-          this.context.timeout(retryBackoffMs);
-          retryBackoffMs *= 2;
-        } finally {
-          if (this.remainingRetries == prevRemainingRetries) {
-            success = true;
-          }
-          prevRemainingRetries = this.remainingRetries;
-        }
+  /**
+   * Pauses the assigned partitions while the async queue is full or TigerGraph is overloaded, see
+   * {@link WriteHealth}. An overloaded TigerGraph gets {@code tigergraph.sink.throttle.pause.ms} to recover
+   * before consumption resumes.
+   */
+  private void updatePause() {
+    final long now = System.currentTimeMillis();
+    if (this.throttledUntilMs == 0L && this.writer.isOverloaded()) {
+      log.info("TigerGraph is overloaded, pausing consumption for {} ms", this.config.throttlePauseMs);
+      this.throttledUntilMs = now + this.config.throttlePauseMs;
+    } else if (this.throttledUntilMs != 0L && now >= this.throttledUntilMs) {
+      this.writer.resetHealth();
+      this.throttledUntilMs = 0L;
+    }
+    final int queued = this.asyncWriter != null ? this.asyncWriter.queuedRecords() : 0;
+    final boolean queueFull = this.asyncWriter != null && (queued >= this.config.asyncQueueMaxRecords
+        || (this.paused && queued > this.config.asyncQueueMaxRecords / 2));
+    if (queueFull || this.throttledUntilMs != 0L) {
+      if (!this.paused) {
+        log.debug("Pausing consumption, {} records waiting to be written", queued);
       }
+      // re-applied on every call so partitions assigned while paused are paused as well
+      this.context.pause(this.context.assignment().toArray(new TopicPartition[0]));
+      this.paused = true;
+    } else if (this.paused) {
+      log.debug("Resuming consumption, {} records waiting to be written", queued);
+      this.context.resume(this.context.assignment().toArray(new TopicPartition[0]));
+      this.paused = false;
+    }
+  }
 
-      this.remainingRetries = this.config.maxRetries;
+  /**
+   * Writes the records held back for coalescing, or queues them in async mode. A synchronous write empties the
+   * buffer only once it succeeded: Connect redelivers just the current put after a {@code RetriableException},
+   * so the records held back from earlier puts have to stay buffered to be written with it.
+   */
+  private void flushCoalesced() {
+    if (this.coalescer.isEmpty()) {
+      return;
+    }
+    if (this.asyncWriter == null) {
+      this.writer.write(this.coalescer.peek());
+      this.coalescer.clear();
+    } else {
+      final Pair<List<SinkRecord>, Map<TopicPartition, OffsetAndMetadata>> drained = this.coalescer.drain();
+      this.asyncWriter.submit(drained.getLeft(), drained.getRight());
+    }
+  }
+
+  public void flush(final Map<TopicPartition, OffsetAndMetadata> currentOffsets) {
+    if (this.coalescer != null) {
+      this.flushCoalesced();
+    }
+  }
+
+  public Map<TopicPartition, OffsetAndMetadata> preCommit(final Map<TopicPartition, OffsetAndMetadata> currentOffsets) {
+    if (this.asyncWriter == null) {
+      return super.preCommit(currentOffsets);
+    }
+    this.flush(currentOffsets);
+    return this.asyncWriter.ackedOffsets(currentOffsets.keySet());
+  }
+
+  public void close(final Collection<TopicPartition> partitions) {
+    if (this.coalescer != null) {
+      this.flushCoalesced();
+    }
+    if (this.asyncWriter != null) {
+      try {
+        this.asyncWriter.awaitDrained(ASYNC_CLOSE_TIMEOUT_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        this.asyncWriter.forget(partitions);
+      }
     }
   }
 
@@ -86,39 +146,48 @@ public class TGSinkTask extends SinkTask {
     } catch (TGConfigException e) {
       throw new ConnectException("Couldn't start TigerGraph SinkTask due to a configuration error", e);
     }
-    this.remainingRetries = this.config.maxRetries;
-    Properties properties = new Properties();
-    properties.put("username", this.config.tigergraph_username);
-    properties.put("password", this.config.tigergraph_password);
-    properties.put("graph", this.config.tigergraph_graph);
-    StringBuilder sb = new StringBuilder();
-    if (this.config.tigergraph_ssl_enabled) {
-      properties.put("trustStore", this.config.ssl_truststore_path);
-      properties.put("trustStorePassword", this.config.ssl_truststore_password);
-      properties.put("trustStoreType", this.config.ssl_truststore_type);
-      properties.put("keyStore", this.config.ssl_keystore_path);
-      properties.put("keyStorePassword", this.config.ssl_keystore_password);
-      properties.put("keyStoreType", this.config.ssl_keystore_type);
-      sb.append("jdbc:tg:https://").append(this.config.tigergraph_ip).append(":").append(this.config.tigergraph_port);
-    } else {
-      sb.append("jdbc:tg:http://").append(this.config.tigergraph_ip).append(":").append(this.config.tigergraph_port);
-    }
+    this.metrics = new SinkMetrics(String.valueOf(props.getOrDefault("tigergraph.connector.name", "tigergraph-sink")),
+        String.valueOf(props.getOrDefault("tigergraph.task.id", "0")), this.config.batchMaxRecords);
+    this.writer = new SinkWriter(this.config, this.errantRecordReporter(), this.metrics);
     try {
-      Driver driver = new Driver();
-      this.con = driver.connect(sb.toString(), properties);
+      this.writer.connect();
     } catch (SQLException e) {
       throw new ConnectException("Error Starting TigerGraph SinkTask", e);
     }
+    if (this.config.asyncEnabled) {
+      this.asyncWriter = new AsyncSinkWriter(this.writer, "tigergraph-sink-writer-" + Thread.currentThread().getName());
+      this.asyncWriter.start();
+      this.metrics.gauge("async-queue-records", "The number of records waiting to be written",
+          this.asyncWriter::queuedRecords);
+    }
+    if (this.config.coalesceEnabled) {
+      this.coalescer = new CoalescingBuffer(this.config);
+      this.metrics.gauge("record-coalesced-total", "The total number of records replaced by a later version of the same vertex",
+          this.coalescer::getCoalesced);
+    }
+  }
+
+  private ErrantRecordReporter errantRecordReporter() {
+    try {
+      return this.context != null ? this.context.errantRecordReporter() : null;
+    } catch (NoSuchMethodError | NoClassDefFoundError e) {
+      log.warn("The Connect runtime does not support reporting failed records, they will fail the task");
+      return null;
+    }
   }
 
   public void stop() {
     log.info("Stopping TigerGraph Sink Task");
-    try {
-      if (this.con != null) {
-        this.con.close();
-      }
-    } catch (SQLException e) {
-      log.error("Failed to stop TigerGraph Sink Task: {}", e.getMessage());
+    if (this.coalescer != null) {
+      log.info("Coalescing buffer: {}", this.coalescer);
+    }
+    if (this.asyncWriter != null) {
+      this.asyncWriter.close(ASYNC_CLOSE_TIMEOUT_MS);
+    } else if (this.writer != null) {
+      this.writer.close();
+    }
+    if (this.metrics != null) {
+      this.metrics.close();
     }
   }
 }
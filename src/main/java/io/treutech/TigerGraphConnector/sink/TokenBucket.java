@@ -0,0 +1,56 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.sink;
+
+import org.apache.kafka.connect.errors.ConnectException;
+
+/**
+ * A token bucket refilled at a fixed rate per second, holding at most one second worth of tokens. Callers
+ * reserve what they need and sleep off any debt outside the lock, so concurrent writers share the budget in
+ * the order they asked for it, and a request larger than the bucket is let through after a proportional wait.
+ * Thread safe.
+ */
+public class TokenBucket {
+  private final double ratePerNano;
+  private final double capacity;
+  private double tokens;
+  private long refilledNanos;
+
+  public TokenBucket(final long ratePerSecond) {
+    this.ratePerNano = ratePerSecond / 1e9;
+    this.capacity = ratePerSecond;
+    this.tokens = ratePerSecond;
+    this.refilledNanos = System.nanoTime();
+  }
+
+  public void acquire(final long permits) {
+    final long waitNanos;
+    synchronized (this) {
+      final long now = System.nanoTime();
+      this.tokens = Math.min(this.capacity, this.tokens + (now - this.refilledNanos) * this.ratePerNano);
+      this.refilledNanos = now;
+      this.tokens -= permits;
+      waitNanos = this.tokens < 0 ? (long) (-this.tokens / this.ratePerNano) : 0L;
+    }
+    if (waitNanos > 0) {
+      try {
+        Thread.sleep(waitNanos / 1000000L, (int) (waitNanos % 1000000L));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ConnectException("Interrupted while waiting for the TigerGraph write rate limit", e);
+      }
+    }
+  }
+}
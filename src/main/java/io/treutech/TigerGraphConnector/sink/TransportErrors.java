@@ -0,0 +1,56 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Tells failures to reach TigerGraph apart from TigerGraph rejecting what was written. Only the latter are
+ * caused by the records, so only they are worth splitting a batch over; the former fail every record alike.
+ */
+final class TransportErrors {
+  // the JDBC driver retries I/O errors itself and then throws a bare SQLException with this in its message
+  private static final String DRIVER_IO_FAILURE = ", payload size: ";
+
+  private TransportErrors() {
+  }
+
+  static boolean isTransport(final SQLException e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof IOException
+          || t instanceof SQLTransientConnectionException
+          || t instanceof SQLNonTransientConnectionException
+          || t instanceof SQLRecoverableException
+          || t instanceof SQLTimeoutException) {
+        return true;
+      }
+      if (t instanceof SQLException) {
+        final String state = ((SQLException) t).getSQLState();
+        if (state != null && state.startsWith("08")) {
+          return true;
+        }
+      }
+      final String message = t.getMessage();
+      if (message != null && message.startsWith("Request: ") && message.contains(DRIVER_IO_FAILURE)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
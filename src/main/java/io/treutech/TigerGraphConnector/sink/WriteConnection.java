@@ -0,0 +1,36 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import io.treutech.TigerGraphConnector.util.Query;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * One connection to TigerGraph that a batch of queries can be written through.
+ * Implementations report any failure to write as an {@link SQLException} so the sink can retry the batch.
+ */
+public interface WriteConnection {
+  void write(List<Query> batch) throws SQLException;
+
+  /**
+   * The time spent binding or serialising the records of the last write, out of its total time.
+   */
+  long getBindNanos();
+
+  boolean isClosed() throws SQLException;
+
+  void close();
+}
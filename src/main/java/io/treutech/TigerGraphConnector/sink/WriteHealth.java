@@ -0,0 +1,58 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.sink;
+
+/**
+ * Tracks how TigerGraph copes with the writes of a task, as moving averages of the write latency and of the
+ * share of failed writes, each weighted 1/5 for the latest write. TigerGraph counts as overloaded while either
+ * average is above its threshold, {@code tigergraph.sink.throttle.latency.ms} and
+ * {@code tigergraph.sink.throttle.error.percent}; a threshold of 0 is not checked.
+ * Thread safe.
+ */
+public class WriteHealth {
+  private static final double WEIGHT = 0.2;
+  private final double latencyThresholdNanos;
+  private final double errorThreshold;
+  private double latencyNanos;
+  private double errors;
+
+  public WriteHealth(final long latencyThresholdMs, final int errorThresholdPercent) {
+    this.latencyThresholdNanos = latencyThresholdMs * 1e6;
+    this.errorThreshold = errorThresholdPercent / 100.0;
+  }
+
+  public synchronized void record(final long latencyNanos, final boolean succeeded) {
+    this.latencyNanos += WEIGHT * (latencyNanos - this.latencyNanos);
+    this.errors += WEIGHT * ((succeeded ? 0.0 : 1.0) - this.errors);
+  }
+
+  public synchronized boolean isOverloaded() {
+    return (this.latencyThresholdNanos > 0 && this.latencyNanos > this.latencyThresholdNanos)
+        || (this.errorThreshold > 0 && this.errors > this.errorThreshold);
+  }
+
+  /**
+   * Starts over, after a pause gave TigerGraph time to recover.
+   */
+  public synchronized void reset() {
+    this.latencyNanos = 0.0;
+    this.errors = 0.0;
+  }
+
+  public synchronized String toString() {
+    return "{ latencyMs='" + (long) (this.latencyNanos / 1e6) +
+        "', errorPercent='" + (int) (this.errors * 100) + "'}";
+  }
+}
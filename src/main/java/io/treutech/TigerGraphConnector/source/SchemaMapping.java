@@ -15,6 +15,7 @@ package io.treutech.TigerGraphConnector.source;
 
 import io.treutech.TigerGraphConnector.util.ColumnDefinition;
 import io.treutech.TigerGraphConnector.util.ColumnId;
+import io.treutech.TigerGraphConnector.util.Profiling;
 import io.treutech.TigerGraphConnector.util.TGResourceUtils;
 
 import java.sql.ResultSetMetaData;
@@ -42,6 +43,7 @@ public final class SchemaMapping {
   public static Pair<SchemaMapping, String> create(final String schemaName,
                                                    final ResultSetMetaData metadata,
                                                    final TGSourceConfig config) {
+    final Object event = Profiling.beginSchemaBuild();
     final List<Pair<ColumnId, ColumnDefinition>> colDefns = TGResourceUtils.describeColumns(metadata);
     final List<Pair<String, ColumnConverter>> colConvertersByFieldName = new ArrayList<>();
     final SchemaBuilder builder = SchemaBuilder.struct().name(schemaName);
@@ -58,6 +60,7 @@ public final class SchemaMapping {
     final String tableFieldName = TGResourceUtils.addFieldToSchema(tableColDefn, builder);
     colConvertersByFieldName.add(Pair.of(tableFieldName, null));
     final Schema schema = builder.build();
+    Profiling.endSchemaBuild(event, schemaName, colConvertersByFieldName.size());
     return Pair.of(new SchemaMapping(schema, colConvertersByFieldName), tableColDefn.getId().getTableId().getCatalogName());
   }
 
@@ -0,0 +1,103 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.source;
+
+import io.treutech.TigerGraphConnector.util.MetadataFingerprint;
+
+import java.sql.ResultSetMetaData;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Bounded LRU cache of {@link SchemaMapping}s keyed by schema name and {@link MetadataFingerprint}, so a
+ * query returning result sets of an unchanged shape poll after poll reuses the same Schema instance and
+ * column converters instead of describing every column again. A changed shape gets its own mapping while
+ * the stale one ages out.
+ * Not thread safe: each task owns its own cache.
+ */
+public class SchemaMappingCache {
+  private final TGSourceConfig config;
+  private final Map<MappingKey, Pair<SchemaMapping, String>> mappings;
+  private long hits;
+  private long misses;
+
+  public SchemaMappingCache(final TGSourceConfig config, final int maxSize) {
+    this.config = config;
+    this.mappings = new LinkedHashMap<MappingKey, Pair<SchemaMapping, String>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<MappingKey, Pair<SchemaMapping, String>> eldest) {
+        return this.size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * The mapping of the result set and the TigerGraph type it holds, as returned by {@link SchemaMapping#create}.
+   */
+  public Pair<SchemaMapping, String> get(final String schemaName, final ResultSetMetaData metadata) {
+    final MappingKey key = new MappingKey(schemaName, MetadataFingerprint.of(metadata));
+    Pair<SchemaMapping, String> mapping = this.mappings.get(key);
+    if (mapping == null) {
+      this.misses++;
+      mapping = SchemaMapping.create(schemaName, metadata, this.config);
+      this.mappings.put(key, mapping);
+    } else {
+      this.hits++;
+    }
+    return mapping;
+  }
+
+  public int size() {
+    return this.mappings.size();
+  }
+
+  public long getHits() {
+    return this.hits;
+  }
+
+  public long getMisses() {
+    return this.misses;
+  }
+
+  public String toString() {
+    return "{ size='" + this.size() +
+        "', hits='" + this.getHits() +
+        "', misses='" + this.getMisses() + "'}";
+  }
+
+  private static final class MappingKey {
+    private final String schemaName;
+    private final MetadataFingerprint fingerprint;
+
+    private MappingKey(final String schemaName, final MetadataFingerprint fingerprint) {
+      this.schemaName = schemaName;
+      this.fingerprint = fingerprint;
+    }
+
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof MappingKey)) {
+        return false;
+      }
+      final MappingKey other = (MappingKey) obj;
+      return Objects.equals(this.schemaName, other.schemaName) && this.fingerprint.equals(other.fingerprint);
+    }
+
+    public int hashCode() {
+      return 31 * Objects.hashCode(this.schemaName) + this.fingerprint.hashCode();
+    }
+  }
+}
@@ -20,6 +20,7 @@ import java.util.Map;
 
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.common.config.ConfigDef.Importance;
+import org.apache.kafka.common.config.ConfigDef.Range;
 import org.apache.kafka.common.config.ConfigDef.Type;
 import org.apache.kafka.common.config.ConfigDef.Width;
 
@@ -30,6 +31,9 @@ public class TGSourceConfig extends TGBaseConfig {
   public String tigergraph_offset_name_key = this.getString("tigergraph.offset.name.key");
   public String tigergraph_type_name_key = this.getString("tigergraph.type.name.key");
   public String tigergraph_query_args_raw = this.getString("tigergraph.source.args");
+  public final int schemaCacheSize = this.getInt("tigergraph.source.schema.cache.size");
+  public final int maxBatchRecords = this.getInt("tigergraph.source.max.batch.records");
+  public final long maxBatchBytes = this.getLong("tigergraph.source.max.batch.bytes");
   public String[] tigergraph_query_args;
   public boolean timestampEnabled;
   public String timestampAttrName;
@@ -83,7 +87,19 @@ public class TGSourceConfig extends TGBaseConfig {
             "TigerGraph", 1, Width.MEDIUM, "The topic offset key")
         .define("tigergraph.type.name.key", Type.STRING, "type", Importance.HIGH,
             "The TG type key",
-            "TigerGraph", 1, Width.MEDIUM, "The TG type key");
+            "TigerGraph", 1, Width.MEDIUM, "The TG type key")
+        .define("tigergraph.source.schema.cache.size", Type.INT, 32,
+            Range.atLeast(1), Importance.LOW,
+            "The maximum number of Connect schemas, one per query and result set shape, cached per task.",
+            "TigerGraph", 1, Width.SHORT, "Schema Cache Size")
+        .define("tigergraph.source.max.batch.records", Type.INT, 10000,
+            Range.atLeast(1), Importance.MEDIUM,
+            "The maximum number of records returned by one poll. A query returning more rows is read over several polls from the same result cursor.",
+            "TigerGraph", 1, Width.SHORT, "Maximum Batch Records")
+        .define("tigergraph.source.max.batch.bytes", Type.LONG, 16777216L,
+            Range.atLeast(1), Importance.MEDIUM,
+            "The approximate maximum size in bytes of the attribute values returned by one poll.",
+            "TigerGraph", 1, Width.SHORT, "Maximum Batch Bytes");
     return conf;
   }
 }
@@ -107,6 +107,9 @@ public class TGSourceConnector extends SourceConnector {
       } else {
         conf.put("tigergraph.source.args", "");
       }
+      conf.put("tigergraph.source.schema.cache.size", String.valueOf(this.sourceConfig.schemaCacheSize));
+      conf.put("tigergraph.source.max.batch.records", String.valueOf(this.sourceConfig.maxBatchRecords));
+      conf.put("tigergraph.source.max.batch.bytes", String.valueOf(this.sourceConfig.maxBatchBytes));
       conf.put("tigergraph.source.timestamp.enabled", String.valueOf(this.sourceConfig.timestampEnabled));
       if (this.sourceConfig.timestampEnabled) {
         if (!this.sourceConfig.timestampAttrName.isEmpty()) {
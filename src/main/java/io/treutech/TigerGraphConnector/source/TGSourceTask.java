@@ -13,9 +13,10 @@
 
 package io.treutech.TigerGraphConnector.source;
 
+import io.treutech.TigerGraphConnector.util.Profiling;
 import io.treutech.TigerGraphConnector.util.TGConfigException;
+import io.treutech.TigerGraphConnector.util.TGResourceUtils;
 import io.treutech.TigerGraphConnector.util.Version;
-import com.tigergraph.jdbc.Driver;
 
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -33,7 +34,6 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -50,99 +50,137 @@ public class TGSourceTask extends SourceTask {
   private Connection con;
   protected TGSourceConfig config;
   private String timestamp;
+  private SchemaMappingCache schemaMappings;
+  private PreparedStatement statement;
+  private ResultSet cursor;
+  private String query;
+  private String queryName;
+  private Map<String, String> sourcePartition;
+  private Map<String, String> runOffset;
+  private Map<String, String> nextOffset;
+  private Pair<SchemaMapping, String> mapping;
+  private SourceRecord pending;
   private static final Logger log = LoggerFactory.getLogger(TGSourceTask.class);
 
   public String version() {
     return Version.getVersion();
   }
 
+  /**
+   * Returns the next rows of the running query, at most {@code tigergraph.source.max.batch.records} records
+   * or about {@code tigergraph.source.max.batch.bytes}, starting the query again once the previous run is done.
+   * The result cursor stays open between polls. Every record of a run carries the offset the run was started
+   * from, except the last one, which carries the offset of the next run: a task restarted halfway re-runs the
+   * whole query instead of skipping the rows it did not deliver.
+   */
   public List<SourceRecord> poll() throws InterruptedException {
-    final StringBuilder builder = new StringBuilder();
-    for (int i = 0; i < this.config.tigergraph_query_args.length; i++) {
-      builder.append(this.config.tigergraph_query_pattern).append(',');
-    }
-    final String query = this.config.tigergraph_query.replace("pattern", StringUtils.chop(builder.toString()));
-    final String queryName = this.getQueryName(query);
-    final Map<String, String> sourcePartition = Collections.singletonMap(this.config.tigergraph_query_name_key, queryName);
-    final List<Map<String, String>> partitions = new ArrayList<>();
-    partitions.add(sourcePartition);
-    final Map<Map<String, String>, Map<String, Object>> offsets = this.context.offsetStorageReader().offsets(partitions);
-    Map<String, Object> offset = null;
-    if (offsets != null) {
-      offset = offsets.get(sourcePartition);
+    if (this.cursor == null) {
+      this.open();
     }
     final List<SourceRecord> records = new ArrayList<>();
+    long bytes = 0L;
+    Object convertEvent = null;
+    int converted = 0;
     try {
-      try (PreparedStatement pstmt = this.con.prepareStatement(query)) {
-        final String[] args = this.config.tigergraph_query_args;
-        for (int i = 0; i < args.length; i++) {
-          pstmt.setInt(i + 1, Integer.parseInt(args[i]));
+      while (this.cursor != null && records.size() < this.config.maxBatchRecords && bytes < this.config.maxBatchBytes) {
+        if (this.mapping == null) {
+          final ResultSetMetaData metaData = this.cursor.getMetaData();
+          if (metaData.getColumnCount() == 0) {
+            this.nextResultSet(records);
+            continue;
+          }
+          this.mapping = this.schemaMappings.get(this.queryName, metaData);
         }
-
-        if (this.config.timestampEnabled) {
-          if (offset != null) {
-            this.timestamp = (String) offset.get(this.config.tigergraph_offset_name_key);
+        if (convertEvent == null) {
+          convertEvent = Profiling.beginSourceConvert();
+          converted = 0;
+        }
+        if (!this.cursor.next()) {
+          Profiling.endSourceConvert(convertEvent, this.queryName, this.mapping.getRight(), converted);
+          convertEvent = null;
+          this.nextResultSet(records);
+          continue;
+        }
+        final Struct record = new Struct(this.mapping.getLeft().getSchema());
+        for (final Pair<Field, ColumnConverter> pair : this.mapping.getLeft().getFields()) {
+          final Object value;
+          try {
+            value = pair.getRight() != null ?
+                (this.cursor.wasNull() ? null : pair.getRight().convert(this.cursor))
+                : this.mapping.getRight();
+          } catch (IOException ioex) {
+            log.warn("Error mapping fields into Connect record", ioex);
+            throw new ConnectException(ioex);
+          } catch (SQLException sqle) {
+            log.warn("SQL error mapping fields into Connect record", sqle);
+            throw new DataException(sqle);
           }
-          pstmt.setString(args.length + 1,
-              this.timestamp.replace(" ", "%20").replace(":", "%3A"));
+          record.put(pair.getLeft(), value);
+          bytes += estimateSize(value);
         }
-
-        try {
-
-          try (ResultSet rs = pstmt.executeQuery()) {
-            do {
-              final ResultSetMetaData metaData = rs.getMetaData();
-              if (metaData.getColumnCount() > 0) {
-                final Pair<SchemaMapping, String> schemaMappingResult = SchemaMapping.create(queryName, metaData, this.config);
-                final String sourceOffsetValue = (new SimpleDateFormat(this.config.timestampFormat)).format(new Date());
-                final Map<String, String> sourceOffset = Collections.singletonMap(this.config.tigergraph_offset_name_key, sourceOffsetValue);
-                while (rs.next()) {
-                  final Struct record = new Struct(( schemaMappingResult.getLeft()).getSchema());
-                  for (final Pair<Field, ColumnConverter> pair : (schemaMappingResult.getLeft()).getFields()) {
-                    try {
-                      record.put(pair.getLeft(), pair.getRight() != null ?
-                          (rs.wasNull() ? null : pair.getRight().convert(rs))
-                          : schemaMappingResult.getRight());
-                    } catch (IOException ioex) {
-                      log.warn("Error mapping fields into Connect record", ioex);
-                      throw new ConnectException(ioex);
-                    } catch (SQLException sqle) {
-                      log.warn("SQL error mapping fields into Connect record", sqle);
-                      throw new DataException(sqle);
-                    }
-                  }
-                  records.add(new SourceRecord(sourcePartition, sourceOffset, this.config.topic, record.schema(), record));
-                  if (this.config.timestampEnabled) {
-                    try {
-                      final String timestamp_value = (String) rs.getObject(this.config.timestampAttrName);
-                      if (timestamp_value != null) {
-                        final Date date = (new SimpleDateFormat(this.config.timestampFormat)).parse(timestamp_value);
-                        final Date ts = (new SimpleDateFormat(this.config.timestampFormat)).parse(this.timestamp);
-                        if (date.getTime() > ts.getTime()) {
-                          this.setTimeStamp(timestamp_value);
-                        }
-                      }
-                    } catch (ParseException pex) {
-                      final StringWriter sw = new StringWriter();
-                      final PrintWriter pw = new PrintWriter(sw);
-                      pex.printStackTrace(pw);
-                      log.error("TGSourceTask parse exception {} \n {}", pex.getMessage(), sw);
-                    }
-                  }
-                }
+        if (this.pending != null) {
+          records.add(this.pending);
+        }
+        this.pending = new SourceRecord(this.sourcePartition, this.runOffset, this.config.topic, record.schema(), record);
+        converted++;
+        if (this.config.timestampEnabled) {
+          try {
+            final String timestamp_value = (String) this.cursor.getObject(this.config.timestampAttrName);
+            if (timestamp_value != null) {
+              final Date date = (new SimpleDateFormat(this.config.timestampFormat)).parse(timestamp_value);
+              final Date ts = (new SimpleDateFormat(this.config.timestampFormat)).parse(this.timestamp);
+              if (date.getTime() > ts.getTime()) {
+                this.setTimeStamp(timestamp_value);
               }
-            } while (!rs.isLast());
+            }
+          } catch (ParseException pex) {
+            final StringWriter sw = new StringWriter();
+            final PrintWriter pw = new PrintWriter(sw);
+            pex.printStackTrace(pw);
+            log.error("TGSourceTask parse exception {} \n {}", pex.getMessage(), sw);
           }
-        } catch (Exception e) {
-          final StringWriter sw = new StringWriter();
-          final PrintWriter pw = new PrintWriter(sw);
-          e.printStackTrace(pw);
-          log.error("Failed to build schema{} \n {}", e.getMessage(), sw);
-          throw new InterruptedException(MessageFormat.format("Failed to build schema: {0}", e.getMessage()));
         }
       }
-      return records;
+      if (convertEvent != null && this.mapping != null) {
+        Profiling.endSourceConvert(convertEvent, this.queryName, this.mapping.getRight(), converted);
+      }
+    } catch (Exception e) {
+      this.closeCursor();
+      final StringWriter sw = new StringWriter();
+      final PrintWriter pw = new PrintWriter(sw);
+      e.printStackTrace(pw);
+      log.error("Failed to build schema{} \n {}", e.getMessage(), sw);
+      throw new InterruptedException(MessageFormat.format("Failed to build schema: {0}", e.getMessage()));
+    }
+    return records;
+  }
+
+  /**
+   * Runs the query from the current offset and keeps its result cursor for the following polls.
+   */
+  private void open() throws InterruptedException {
+    try {
+      this.statement = this.con.prepareStatement(this.query);
+      final String[] args = this.config.tigergraph_query_args;
+      for (int i = 0; i < args.length; i++) {
+        this.statement.setInt(i + 1, Integer.parseInt(args[i]));
+      }
+
+      if (this.config.timestampEnabled) {
+        this.statement.setString(args.length + 1,
+            this.timestamp.replace(" ", "%20").replace(":", "%3A"));
+      }
+      this.runOffset = Collections.singletonMap(this.config.tigergraph_offset_name_key, this.timestamp);
+      this.nextOffset = Collections.singletonMap(this.config.tigergraph_offset_name_key,
+          (new SimpleDateFormat(this.config.timestampFormat)).format(new Date()));
+
+      final Object queryEvent = Profiling.beginSourceQuery();
+      this.cursor = this.statement.executeQuery();
+      Profiling.endSourceQuery(queryEvent, this.queryName);
+      this.mapping = null;
+      this.pending = null;
     } catch (SQLException sqle) {
+      this.closeCursor();
       final StringWriter sw = new StringWriter();
       final PrintWriter pw = new PrintWriter(sw);
       sqle.printStackTrace(pw);
@@ -151,6 +189,53 @@ public class TGSourceTask extends SourceTask {
     }
   }
 
+  /**
+   * Moves the cursor to the next result set of the query. After the last one the held back record is
+   * emitted with the offset of the next run, which the next run starts from, and the cursor is closed.
+   */
+  private void nextResultSet(final List<SourceRecord> records) throws SQLException {
+    this.mapping = null;
+    if (this.cursor.isLast()) {
+      if (this.pending != null) {
+        records.add(new SourceRecord(this.sourcePartition, this.nextOffset, this.config.topic,
+            this.pending.valueSchema(), this.pending.value()));
+      }
+      this.setTimeStamp(this.nextOffset.get(this.config.tigergraph_offset_name_key));
+      this.closeCursor();
+    }
+  }
+
+  private void closeCursor() {
+    try {
+      if (this.cursor != null) {
+        this.cursor.close();
+      }
+      if (this.statement != null) {
+        this.statement.close();
+      }
+    } catch (SQLException sqle) {
+      log.warn("Error closing TigerGraph query result", sqle);
+    }
+    this.cursor = null;
+    this.statement = null;
+    this.mapping = null;
+    this.pending = null;
+  }
+
+  /**
+   * A rough size of a converted value, used to bound the bytes returned by a poll.
+   */
+  private static long estimateSize(final Object value) {
+    if (value == null) {
+      return 1L;
+    } else if (value instanceof String) {
+      return ((String) value).length();
+    } else if (value instanceof byte[]) {
+      return ((byte[]) value).length;
+    }
+    return 8L;
+  }
+
   public void start(final Map props) {
     log.info("Starting TigerGraph Source Task");
     try {
@@ -159,25 +244,21 @@ public class TGSourceTask extends SourceTask {
       throw new ConnectException(MessageFormat.format("Couldn't start TigerGraph SourceTask due to a configuration error: {0}", var6.getMessage()));
     }
     this.timestamp = (new SimpleDateFormat(this.config.timestampFormat)).format(new Date());
-    final Properties properties = new Properties();
-    properties.put("username", this.config.tigergraph_username);
-    properties.put("password", this.config.tigergraph_password);
-    properties.put("graph", this.config.tigergraph_graph);
-    StringBuilder sb = new StringBuilder();
-    if (this.config.tigergraph_ssl_enabled) {
-      properties.put("trustStore", this.config.ssl_truststore_path);
-      properties.put("trustStorePassword", this.config.ssl_truststore_password);
-      properties.put("trustStoreType", this.config.ssl_truststore_type);
-      properties.put("keyStore", this.config.ssl_keystore_path);
-      properties.put("keyStorePassword", this.config.ssl_keystore_password);
-      properties.put("keyStoreType", this.config.ssl_keystore_type);
-      sb.append("jdbc:tg:https://").append(this.config.tigergraph_ip).append(":").append(this.config.tigergraph_port);
-    } else {
-      sb.append("jdbc:tg:http://").append(this.config.tigergraph_ip).append(":").append(this.config.tigergraph_port);
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < this.config.tigergraph_query_args.length; i++) {
+      builder.append(this.config.tigergraph_query_pattern).append(',');
+    }
+    this.query = this.config.tigergraph_query.replace("pattern", StringUtils.chop(builder.toString()));
+    this.queryName = this.getQueryName(this.query);
+    this.sourcePartition = Collections.singletonMap(this.config.tigergraph_query_name_key, this.queryName);
+    // the stored offset is only read here: afterwards the task is ahead of what Connect has committed
+    final Map<String, Object> offset = this.context.offsetStorageReader().offset(this.sourcePartition);
+    if (this.config.timestampEnabled && offset != null) {
+      this.timestamp = (String) offset.get(this.config.tigergraph_offset_name_key);
     }
+    this.schemaMappings = new SchemaMappingCache(this.config, this.config.schemaCacheSize);
     try {
-      final Driver driver = new Driver();
-      this.con = driver.connect(sb.toString(), properties);
+      this.con = TGResourceUtils.connect(this.config);
     } catch (SQLException var5) {
       throw new ConnectException(MessageFormat.format("Error Starting TigerGraph SourceTask: {0}", var5.getMessage()));
     }
@@ -185,6 +266,7 @@ public class TGSourceTask extends SourceTask {
 
   public void stop() {
     log.info("Stopping TigerGraph Source Task");
+    this.closeCursor();
     try {
       if (this.con != null) {
         this.con.close();
@@ -0,0 +1,129 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.util;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The shape of a result set as far as its Connect schema depends on it: the name, label, type, precision,
+ * scale and signedness of each column, and the catalog (the TigerGraph type) of the first column.
+ * Read with plain {@link ResultSetMetaData} calls so it is cheap enough to compute on every result set;
+ * an attribute the driver does not support reads as empty, zero or false.
+ */
+public final class MetadataFingerprint {
+  private final String catalog;
+  private final String[] names;
+  private final String[] labels;
+  private final int[] types;
+  private final int[] precisions;
+  private final int[] scales;
+  private final boolean[] signed;
+  private final int hash;
+
+  private MetadataFingerprint(final String catalog, final String[] names, final String[] labels, final int[] types,
+                              final int[] precisions, final int[] scales, final boolean[] signed) {
+    this.catalog = catalog;
+    this.names = names;
+    this.labels = labels;
+    this.types = types;
+    this.precisions = precisions;
+    this.scales = scales;
+    this.signed = signed;
+    int result = Objects.hashCode(catalog);
+    result = 31 * result + Arrays.hashCode(names);
+    result = 31 * result + Arrays.hashCode(labels);
+    result = 31 * result + Arrays.hashCode(types);
+    result = 31 * result + Arrays.hashCode(precisions);
+    result = 31 * result + Arrays.hashCode(scales);
+    this.hash = 31 * result + Arrays.hashCode(signed);
+  }
+
+  public static MetadataFingerprint of(final ResultSetMetaData metadata) {
+    int columnCount = 0;
+    try {
+      columnCount = metadata.getColumnCount();
+    } catch (SQLException ignored) {}
+    final String[] names = new String[columnCount];
+    final String[] labels = new String[columnCount];
+    final int[] types = new int[columnCount];
+    final int[] precisions = new int[columnCount];
+    final int[] scales = new int[columnCount];
+    final boolean[] signed = new boolean[columnCount];
+    String catalog = "";
+    for (int i = 0; i < columnCount; i++) {
+      final int column = i + 1;
+      try {
+        names[i] = metadata.getColumnName(column);
+      } catch (SQLException | UnsupportedOperationException e) {
+        names[i] = "";
+      }
+      try {
+        labels[i] = metadata.getColumnLabel(column);
+      } catch (SQLException | UnsupportedOperationException e) {
+        labels[i] = "";
+      }
+      try {
+        types[i] = metadata.getColumnType(column);
+      } catch (SQLException | UnsupportedOperationException ignored) {}
+      try {
+        precisions[i] = metadata.getPrecision(column);
+      } catch (SQLException | UnsupportedOperationException ignored) {}
+      try {
+        scales[i] = metadata.getScale(column);
+      } catch (SQLException | UnsupportedOperationException ignored) {}
+      try {
+        signed[i] = metadata.isSigned(column);
+      } catch (SQLException | UnsupportedOperationException ignored) {}
+    }
+    if (columnCount > 0) {
+      try {
+        catalog = metadata.getCatalogName(1);
+      } catch (SQLException | UnsupportedOperationException ignored) {}
+    }
+    return new MetadataFingerprint(catalog, names, labels, types, precisions, scales, signed);
+  }
+
+  public int getColumnCount() {
+    return this.names.length;
+  }
+
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof MetadataFingerprint)) {
+      return false;
+    }
+    final MetadataFingerprint other = (MetadataFingerprint) obj;
+    return this.hash == other.hash
+        && Objects.equals(this.catalog, other.catalog)
+        && Arrays.equals(this.names, other.names)
+        && Arrays.equals(this.labels, other.labels)
+        && Arrays.equals(this.types, other.types)
+        && Arrays.equals(this.precisions, other.precisions)
+        && Arrays.equals(this.scales, other.scales)
+        && Arrays.equals(this.signed, other.signed);
+  }
+
+  public int hashCode() {
+    return this.hash;
+  }
+
+  public String toString() {
+    return "{ catalog='" + this.catalog + "', columns='" + Arrays.toString(this.labels) + "'}";
+  }
+}
@@ -0,0 +1,286 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.util;
+
+import java.util.List;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events around the hot stages of the sink and the source, so a continuous recording
+ * shows which stage a slow put or poll spent its time in. The connector still runs on JVMs without
+ * {@code jdk.jfr}: callers only ever hold the events as an Object, null whenever the event is not being
+ * recorded, and the event classes are only loaded once {@code jdk.jfr} is known to be present.
+ */
+public final class Profiling {
+  /**
+   * The type name of records of several types.
+   */
+  public static final String MIXED_TYPES = "*";
+  private static final boolean AVAILABLE = isAvailable();
+
+  private Profiling() {
+  }
+
+  private static boolean isAvailable() {
+    try {
+      Class.forName("jdk.jfr.Event", false, Profiling.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  public static Object beginPrepare() {
+    return AVAILABLE ? Events.begin(Events.SINK_PREPARE) : null;
+  }
+
+  public static void endPrepare(final Object event, final int records, final int written) {
+    if (event != null) {
+      Events.endPrepare(event, records, written);
+    }
+  }
+
+  public static Object beginWrite() {
+    return AVAILABLE ? Events.begin(Events.SINK_WRITE) : null;
+  }
+
+  public static void endWrite(final Object event,
+                              final List<Query> batch,
+                              final String writer,
+                              final long bindNanos,
+                              final int attempt,
+                              final boolean succeeded) {
+    if (event != null) {
+      Events.endWrite(event, batch.size(), typeName(batch), writer, bindNanos, attempt, succeeded);
+    }
+  }
+
+  public static Object beginSourceQuery() {
+    return AVAILABLE ? Events.begin(Events.SOURCE_QUERY) : null;
+  }
+
+  public static void endSourceQuery(final Object event, final String query) {
+    if (event != null) {
+      Events.endSourceQuery(event, query);
+    }
+  }
+
+  public static Object beginSourceConvert() {
+    return AVAILABLE ? Events.begin(Events.SOURCE_CONVERT) : null;
+  }
+
+  public static void endSourceConvert(final Object event, final String query, final String type, final int records) {
+    if (event != null) {
+      Events.endSourceConvert(event, query, type, records);
+    }
+  }
+
+  public static Object beginSchemaBuild() {
+    return AVAILABLE ? Events.begin(Events.SCHEMA_BUILD) : null;
+  }
+
+  public static void endSchemaBuild(final Object event, final String schema, final int columns) {
+    if (event != null) {
+      Events.endSchemaBuild(event, schema, columns);
+    }
+  }
+
+  /**
+   * The type all queries of the batch write, or {@link #MIXED_TYPES} for a RESTPP batch mixing several.
+   */
+  public static String typeName(final List<Query> batch) {
+    final String type = batch.get(0).getPlan().getTableId().getTableName();
+    for (final Query query : batch) {
+      if (!type.equals(query.getPlan().getTableId().getTableName())) {
+        return MIXED_TYPES;
+      }
+    }
+    return type;
+  }
+
+  /**
+   * Everything that touches {@code jdk.jfr}; only loaded, and verified, once it is known to be present.
+   */
+  private static final class Events {
+    private static final int SINK_PREPARE = 0;
+    private static final int SINK_WRITE = 1;
+    private static final int SOURCE_QUERY = 2;
+    private static final int SOURCE_CONVERT = 3;
+    private static final int SCHEMA_BUILD = 4;
+
+    private static Object begin(final int stage) {
+      final Event event;
+      switch (stage) {
+        case SINK_PREPARE:
+          event = new SinkPrepareEvent();
+          break;
+        case SINK_WRITE:
+          event = new SinkWriteEvent();
+          break;
+        case SOURCE_QUERY:
+          event = new SourceQueryEvent();
+          break;
+        case SOURCE_CONVERT:
+          event = new SourceConvertEvent();
+          break;
+        default:
+          event = new SchemaBuildEvent();
+          break;
+      }
+      if (!event.isEnabled()) {
+        return null;
+      }
+      event.begin();
+      return event;
+    }
+
+    private static void endPrepare(final Object event, final int records, final int written) {
+      final SinkPrepareEvent prepare = (SinkPrepareEvent) event;
+      prepare.records = records;
+      prepare.written = written;
+      commit(prepare);
+    }
+
+    private static void endWrite(final Object event,
+                                 final int records,
+                                 final String type,
+                                 final String writer,
+                                 final long bindNanos,
+                                 final int attempt,
+                                 final boolean succeeded) {
+      final SinkWriteEvent write = (SinkWriteEvent) event;
+      write.records = records;
+      write.type = type;
+      write.writer = writer;
+      write.bindTime = bindNanos;
+      write.attempt = attempt;
+      write.succeeded = succeeded;
+      commit(write);
+    }
+
+    private static void endSourceQuery(final Object event, final String query) {
+      final SourceQueryEvent execute = (SourceQueryEvent) event;
+      execute.query = query;
+      commit(execute);
+    }
+
+    private static void endSourceConvert(final Object event, final String query, final String type, final int records) {
+      final SourceConvertEvent convert = (SourceConvertEvent) event;
+      convert.query = query;
+      convert.type = type;
+      convert.records = records;
+      commit(convert);
+    }
+
+    private static void endSchemaBuild(final Object event, final String schema, final int columns) {
+      final SchemaBuildEvent build = (SchemaBuildEvent) event;
+      build.schema = schema;
+      build.columns = columns;
+      commit(build);
+    }
+
+    private static void commit(final Event event) {
+      event.end();
+      if (event.shouldCommit()) {
+        event.commit();
+      }
+    }
+  }
+
+  @Name("io.treutech.tigergraph.SinkPrepare")
+  @Label("Sink Prepare")
+  @Description("Statement generation and routing of the records of one put")
+  @Category({"TigerGraph Connector", "Sink"})
+  @StackTrace(false)
+  static final class SinkPrepareEvent extends Event {
+    @Label("Records")
+    int records;
+
+    @Label("Written Records")
+    @Description("Records left after skipping unchanged vertices")
+    int written;
+  }
+
+  @Name("io.treutech.tigergraph.SinkWrite")
+  @Label("Sink Write")
+  @Description("One attempt to bind and execute a batch against TigerGraph")
+  @Category({"TigerGraph Connector", "Sink"})
+  @StackTrace(false)
+  static final class SinkWriteEvent extends Event {
+    @Label("Records")
+    int records;
+
+    @Label("Type")
+    String type;
+
+    @Label("Writer")
+    String writer;
+
+    @Label("Bind Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long bindTime;
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Succeeded")
+    boolean succeeded;
+  }
+
+  @Name("io.treutech.tigergraph.SourceQuery")
+  @Label("Source Query")
+  @Description("Execution of the source query up to its first result")
+  @Category({"TigerGraph Connector", "Source"})
+  @StackTrace(false)
+  static final class SourceQueryEvent extends Event {
+    @Label("Query")
+    String query;
+  }
+
+  @Name("io.treutech.tigergraph.SourceConvert")
+  @Label("Source Convert")
+  @Description("Conversion of the rows of one result set into Connect records")
+  @Category({"TigerGraph Connector", "Source"})
+  @StackTrace(false)
+  static final class SourceConvertEvent extends Event {
+    @Label("Query")
+    String query;
+
+    @Label("Type")
+    String type;
+
+    @Label("Records")
+    int records;
+  }
+
+  @Name("io.treutech.tigergraph.SchemaBuild")
+  @Label("Schema Build")
+  @Description("Building the Connect schema and column converters of a result set")
+  @Category({"TigerGraph Connector", "Source"})
+  @StackTrace(false)
+  static final class SchemaBuildEvent extends Event {
+    @Label("Schema")
+    String schema;
+
+    @Label("Columns")
+    int columns;
+  }
+}
@@ -13,44 +13,93 @@
 
 package io.treutech.TigerGraphConnector.util;
 
-import io.treutech.TigerGraphConnector.sink.FieldMetadata;
 import io.treutech.TigerGraphConnector.sink.PreparedStatementBinder;
+import io.treutech.TigerGraphConnector.sink.PreparedStatementCache;
 import io.treutech.TigerGraphConnector.sink.TGSinkConfig;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
 
 import org.apache.commons.lang3.tuple.Pair;
-import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.sink.SinkRecord;
 
 public class Query {
-  private final String body;
+  private final WritePlan plan;
   private final SinkRecord record;
-  private final FieldMetadata fieldMetadata;
-  private final Pair<Schema, Schema> schemaPair;
   private final TGSinkConfig config;
+  private long fingerprintKey;
+  private long fingerprintHash;
 
-  public Query(final String body,
+  public Query(final WritePlan plan,
                final TGSinkConfig config,
-               final Pair<Schema, Schema> schemaPair,
-               final FieldMetadata fieldmetadata,
                final SinkRecord record) {
-    this.body = body;
+    this.plan = plan;
     this.config = config;
-    this.schemaPair = schemaPair;
-    this.fieldMetadata = fieldmetadata;
     this.record = record;
   }
 
-  public void genericRun(final Connection con) throws SQLException {
-    final PreparedStatement stmt = con.prepareStatement(this.body);
+  public String getBody() {
+    return this.plan.getSql();
+  }
+
+  public WritePlan getPlan() {
+    return this.plan;
+  }
+
+  public SinkRecord getRecord() {
+    return this.record;
+  }
+
+  /**
+   * The vertex key and attribute hash a change detector remembers once the query is written, 0 if none.
+   */
+  public void setFingerprint(final long key, final long hash) {
+    this.fingerprintKey = key;
+    this.fingerprintHash = hash;
+  }
+
+  public long getFingerprintKey() {
+    return this.fingerprintKey;
+  }
+
+  public long getFingerprintHash() {
+    return this.fingerprintHash;
+  }
+
+  /**
+   * The column names and raw values of the record, in the order they are bound to the INSERT.
+   */
+  public Pair<String[], Object[]> getRow() {
+    return Pair.of(this.plan.getColumns(), this.plan.getValues(this.record));
+  }
+
+  public void bind(final PreparedStatement stmt) throws SQLException {
     final PreparedStatementBinder binder =
-        new PreparedStatementBinder(stmt, this.config.pkMode,
-            this.config.tigergraph_type_name_key,
-            this.schemaPair, this.fieldMetadata);
+        new PreparedStatementBinder(stmt, this.config.pkMode, this.plan);
     binder.bindRecord(this.record);
-    stmt.executeBatch();
+  }
+
+  /**
+   * Binds every query of the batch into a single statement and sends them in one round trip.
+   * All queries must share the same body, which is the case when they are grouped by {@link #getBody()}.
+   * @return the time spent preparing and binding, before the batch was executed
+   */
+  public static long batchRun(final PreparedStatementCache statements, final List<Query> queries) throws SQLException {
+    final long start = System.nanoTime();
+    final String body = queries.get(0).getBody();
+    final PreparedStatement stmt = statements.prepare(body);
+    try {
+      for (final Query query : queries) {
+        query.bind(stmt);
+      }
+      final long bindNanos = System.nanoTime() - start;
+      stmt.executeBatch();
+      stmt.clearBatch();
+      return bindNanos;
+    } catch (SQLException | RuntimeException e) {
+      statements.invalidate(body);
+      throw e;
+    }
   }
 }
@@ -17,31 +17,64 @@ import io.treutech.TigerGraphConnector.sink.FieldMetadata;
 import io.treutech.TigerGraphConnector.sink.TGSinkConfig;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.StringJoiner;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.sink.SinkRecord;
 
 public class QueryBuilder {
   public static Query generateQuery(final SinkRecord record, final TGSinkConfig config) {
+    return new Query(buildWritePlan(record, config), config, record);
+  }
+
+  public static Query generateQuery(final SinkRecord record, final TGSinkConfig config, final WritePlanCache plans) {
+    return new Query(plans.get(record), config, record);
+  }
+
+  public static WritePlan buildWritePlan(final SinkRecord record, final TGSinkConfig config) {
+    if (record.valueSchema() == null) {
+      final Map<?, ?> values = (Map<?, ?>) record.value();
+      final SchemalessShape shape = SchemalessShape.classify(values.keySet(), config.tigergraph_type_name_key);
+      final Object typeName = shape.getTypeKey() != null ? values.get(shape.getTypeKey()) : null;
+      return buildWritePlan(shape, typeName != null ? String.valueOf(typeName) : "", record.keySchema(), config);
+    }
     final Pair<Schema, Schema> schemaPair = Pair.of(record.keySchema(), record.valueSchema());
     final Pair<TableId, String> tableDetails = TGResourceUtils.getTableDetails(record, config.tigergraph_type_name_key);
     final FieldMetadata fieldmetadata = FieldMetadata.extract((tableDetails.getLeft()).getTableName(),
         config.pkMode, config.pkFields, schemaPair, config.tigergraph_type_name_key);
     final String queryBody = buildInsertStatement(tableDetails,
-        fieldmetadata.keyFieldNames, fieldmetadata.nonKeyFieldNames, record, config.tigergraph_type_name_key);
-    return new Query(queryBody, config, schemaPair, fieldmetadata, record);
+        fieldmetadata.keyFieldNames, fieldmetadata.nonKeyFieldNames);
+    final Field typeField = TGResourceUtils.getTypeField(record.valueSchema(), config.tigergraph_type_name_key);
+    return new WritePlan(schemaPair, typeField, tableDetails, config.pkMode, fieldmetadata, queryBody);
+  }
+
+  /**
+   * The plan of schemaless records of the given shape and type name.
+   */
+  public static WritePlan buildWritePlan(final SchemalessShape shape,
+                                         final String typeName,
+                                         final Schema keySchema,
+                                         final TGSinkConfig config) {
+    final Pair<TableId, String> tableDetails = Pair.of(new TableId("", "", typeName), shape.getElementType());
+    final FieldMetadata fieldmetadata = FieldMetadata.extract(typeName,
+        config.pkMode, config.pkFields, Pair.of(keySchema, null), config.tigergraph_type_name_key);
+    final StringJoiner namePart = new StringJoiner(",", "(", ")");
+    final StringJoiner valuePart = new StringJoiner(",", "(", ")");
+    for (final String column : shape.getColumns()) {
+      namePart.add(column);
+      valuePart.add("?");
+    }
+    final String queryBody = "INSERT INTO " + shape.getElementType() + " " + typeName + " " + namePart + " " +
+        "VALUES " + valuePart;
+    return new WritePlan(shape, tableDetails, config.pkMode, fieldmetadata, queryBody);
   }
 
   public static String buildInsertStatement(final Pair<TableId, String> tableDetails,
                                             final Collection<String> keyColumns,
-                                            final Collection<String> nonKeyColumns,
-                                            final SinkRecord record,
-                                            final String typeKeyName) {
-    Map<String, String> recordValues = null;
+                                            final Collection<String> nonKeyColumns) {
     final StringJoiner namePart = new StringJoiner(",", "(", ")");
     final String tableType = tableDetails.getRight();
     if (tableType.startsWith("v")) {
@@ -51,72 +84,25 @@ public class QueryBuilder {
       for (final String keyColumn : keyColumns) {
         namePart.add(keyColumn);
       }
-      if (!nonKeyColumns.isEmpty()) {
-        for (final String nonKeyColumn : nonKeyColumns) {
-          if (!nonKeyColumn.startsWith("v_")) {
-            namePart.add(nonKeyColumn);
-          } else {
-            namePart.add("id");
-          }
-        }
-      } else if (record.valueSchema() == null) {
-        final Map<String, String> values = new HashMap<>((Map<String, String>)record.value());
-        String tableKey = null;
-
-        for (String s : values.keySet()) {
-          if (s.endsWith("_" + typeKeyName)) {
-            tableKey = s;
-          }
-        }
-        if (tableKey != null) {
-          values.remove(tableKey);
-        }
-        namePart.add("id");
-        for (final String s : values.keySet()) {
-          if (!s.startsWith("v_")) {
-            namePart.add(s);
-          }
+      for (final String nonKeyColumn : nonKeyColumns) {
+        if (!nonKeyColumn.startsWith("v_")) {
+          namePart.add(nonKeyColumn);
+        } else {
+          namePart.add("id");
         }
-        recordValues = values;
       }
     } else {
       for (final String keyColumn : keyColumns) {
         namePart.add(keyColumn);
       }
-      if (!nonKeyColumns.isEmpty()) {
-        for (final String nonKeyColumn : nonKeyColumns) {
-          namePart.add(nonKeyColumn);
-        }
-      } else if (record.valueSchema() == null) {
-        HashMap<String, String> values = new HashMap<>((Map<String, String>) record.value());
-        String tableKey = null;
-        for (final String s : values.keySet()) {
-          if (s.endsWith("_" + typeKeyName)) {
-            tableKey = s;
-          }
-        }
-        if (tableKey != null) {
-          values.remove(tableKey);
-        }
-        for (final String s : values.keySet()) {
-          namePart.add(s);
-        }
-        recordValues = values;
+      for (final String nonKeyColumn : nonKeyColumns) {
+        namePart.add(nonKeyColumn);
       }
     }
 
     final StringJoiner valuePart = new StringJoiner(",", "(", ")");
-
-    if (keyColumns.isEmpty() && nonKeyColumns.isEmpty()) {
-      if (recordValues != null) {
-        for (int i = 0; i < recordValues.size(); i++) {
-          valuePart.add("?");
-        }
-      }
-    } else {
-      for (int i = 0; i < keyColumns.size() + nonKeyColumns.size(); i++) {
-        valuePart.add("?");
-      }
+    for (int i = 0; i < keyColumns.size() + nonKeyColumns.size(); i++) {
+      valuePart.add("?");
     }
 
     return "INSERT INTO " + tableType + " " + (tableDetails.getLeft()).getTableName() + " " + namePart + " " +
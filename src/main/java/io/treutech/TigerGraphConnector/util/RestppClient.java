@@ -0,0 +1,153 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Base64;
+
+import javax.net.ssl.SSLContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.apache.http.ssl.SSLContexts;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Minimal HTTP client for the TigerGraph REST endpoints, authenticated the same way as the JDBC driver:
+ * a token is requested from {@code /gsqlserver/gsql/authtoken} with the configured user and sent as a bearer
+ * token on every request. Failed requests, and responses flagged with {@code "error": true}, are reported as
+ * {@link SQLException}s like the driver does. I/O errors and HTTP statuses that say nothing about the request
+ * itself (408, 429 and 5xx) are reported as {@link SQLTransientConnectionException}s.
+ */
+public class RestppClient {
+  private static final Logger log = LoggerFactory.getLogger(RestppClient.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private final CloseableHttpClient httpClient;
+  private final String baseUrl;
+  private final String graph;
+  private final String authorization;
+  private volatile boolean closed;
+
+  public RestppClient(final TGBaseConfig config) throws SQLException {
+    this.baseUrl = (config.tigergraph_ssl_enabled ? "https://" : "http://")
+        + config.tigergraph_ip + ":" + config.tigergraph_port;
+    this.graph = config.tigergraph_graph;
+    this.httpClient = buildClient(config);
+    if (config.tigergraph_username.isEmpty()) {
+      this.authorization = null;
+    } else {
+      final String basic = Base64.getEncoder().encodeToString(
+          (config.tigergraph_username + ":" + config.tigergraph_password).getBytes(StandardCharsets.UTF_8));
+      final HttpGet get = new HttpGet(this.baseUrl + "/gsqlserver/gsql/authtoken?graph=" + this.graph);
+      get.addHeader("Authorization", "Basic " + basic);
+      final JsonNode response = this.execute(get);
+      JsonNode token = response.path("results");
+      token = token.isArray() ? token.path(0).path("token") : token.path("token");
+      if (token.isMissingNode()) {
+        token = response.path("token");
+      }
+      if (token.isMissingNode()) {
+        throw new SQLException("Failed to get token: " + response);
+      }
+      this.authorization = "Bearer " + token.asText();
+    }
+  }
+
+  public String getGraph() {
+    return this.graph;
+  }
+
+  public JsonNode post(final String path, final HttpEntity entity) throws SQLException {
+    final HttpPost post = new HttpPost(this.baseUrl + path);
+    post.setEntity(entity);
+    return this.execute(post);
+  }
+
+  private JsonNode execute(final HttpRequestBase request) throws SQLException {
+    if (this.authorization != null && request.getFirstHeader("Authorization") == null) {
+      request.addHeader("Authorization", this.authorization);
+    }
+    request.addHeader("Accept", "application/json");
+    try (CloseableHttpResponse response = this.httpClient.execute(request)) {
+      final int status = response.getStatusLine().getStatusCode();
+      final byte[] body = response.getEntity() != null ? EntityUtils.toByteArray(response.getEntity()) : new byte[0];
+      if (status >= 500 || status == 408 || status == 429) {
+        throw new SQLTransientConnectionException("Request: " + request.getURI() + " failed with HTTP " + status + ": "
+            + new String(body, StandardCharsets.UTF_8), "08001");
+      }
+      if (status >= 300) {
+        throw new SQLException("Request: " + request.getURI() + " failed with HTTP " + status + ": "
+            + new String(body, StandardCharsets.UTF_8));
+      }
+      final JsonNode root = MAPPER.readTree(body);
+      if (root.path("error").asBoolean()) {
+        throw new SQLException("Request: " + request.getURI() + ", error: " + root.path("message").asText());
+      }
+      return root;
+    } catch (IOException e) {
+      throw new SQLTransientConnectionException("Request: " + request.getURI() + ", error: " + e, "08001", e);
+    }
+  }
+
+  public boolean isClosed() {
+    return this.closed;
+  }
+
+  public void close() {
+    this.closed = true;
+    try {
+      this.httpClient.close();
+    } catch (IOException e) {
+      log.error("Failed to close the http client: {}", e.getMessage());
+    }
+  }
+
+  private static CloseableHttpClient buildClient(final TGBaseConfig config) throws SQLException {
+    final HttpClientBuilder builder = HttpClients.custom();
+    if (config.tigergraph_ssl_enabled) {
+      try {
+        final SSLContextBuilder ssl = SSLContexts.custom();
+        if (!config.ssl_truststore_path.isEmpty()) {
+          ssl.setKeyStoreType(config.ssl_truststore_type)
+              .loadTrustMaterial(new File(config.ssl_truststore_path), config.ssl_truststore_password.toCharArray());
+        }
+        if (!config.ssl_keystore_path.isEmpty()) {
+          ssl.setKeyStoreType(config.ssl_keystore_type)
+              .loadKeyMaterial(new File(config.ssl_keystore_path),
+                  config.ssl_keystore_password.toCharArray(), config.ssl_keystore_password.toCharArray());
+        }
+        final SSLContext context = ssl.build();
+        builder.setSSLContext(context);
+      } catch (Exception e) {
+        throw new SQLException("Failed to set up SSL: " + e.getMessage(), e);
+      }
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,122 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What a schemaless (Map) record looks like for a given set of keys: which key names the type, which the id,
+ * and the order the other keys are written in. It only depends on the key set, so it is classified once per
+ * distinct key set and looked up by it afterwards. The id key is the one sharing the type key's prefix,
+ * {@code v_id} for {@code v_type}, or else the first key ending in {@code _id}. It comes first. An edge is written
+ * from its first two columns, the source and the target vertex, so the next key ending in {@code _id} comes second,
+ * {@code to_id} after {@code from_id}. The other keys follow sorted by name, so the same key set always produces
+ * the same INSERT whatever order the Map iterates in.
+ */
+public final class SchemalessShape {
+  private final String typeKey;
+  private final String idKey;
+  private final String elementType;
+  private final String[] keys;
+  private final String[] columns;
+
+  private SchemalessShape(final String typeKey, final String idKey, final List<String> keys) {
+    this.typeKey = typeKey;
+    this.idKey = idKey;
+    this.elementType = typeKey != null ? TGResourceUtils.getElementType(typeKey) : "";
+    this.keys = keys.toArray(new String[0]);
+    this.columns = this.keys.clone();
+    if (idKey != null && this.elementType.startsWith("v")) {
+      this.columns[0] = "id";
+    }
+  }
+
+  public static SchemalessShape classify(final Collection<?> keySet, final String typeKeyName) {
+    final String typeSuffix = "_" + typeKeyName;
+    String typeKey = null;
+    String idKey = null;
+    final List<String> keys = new ArrayList<>(keySet.size());
+    for (final Object key : keySet) {
+      final String name = String.valueOf(key);
+      if (typeKey == null && name.indexOf('_') > 0 && name.endsWith(typeSuffix)) {
+        typeKey = name;
+      } else {
+        keys.add(name);
+      }
+    }
+    Collections.sort(keys);
+    final String preferredIdKey = typeKey != null ? typeKey.substring(0, typeKey.indexOf('_')) + "_id" : null;
+    int id = keys.indexOf(preferredIdKey);
+    for (int i = 0; i < keys.size() && id < 0; i++) {
+      if (keys.get(i).endsWith("_id")) {
+        id = i;
+      }
+    }
+    if (id >= 0) {
+      idKey = keys.remove(id);
+      keys.add(0, idKey);
+      if (typeKey != null && TGResourceUtils.getElementType(typeKey).startsWith("e")) {
+        for (int i = 1; i < keys.size(); i++) {
+          if (keys.get(i).endsWith("_id")) {
+            keys.add(1, keys.remove(i));
+            break;
+          }
+        }
+      }
+    }
+    return new SchemalessShape(typeKey, idKey, keys);
+  }
+
+  /**
+   * The key holding the vertex or edge type name, or null.
+   */
+  public String getTypeKey() {
+    return this.typeKey;
+  }
+
+  /**
+   * The key holding the id, bound first, or null.
+   */
+  public String getIdKey() {
+    return this.idKey;
+  }
+
+  public String getElementType() {
+    return this.elementType;
+  }
+
+  /**
+   * The keys of the values to write, in binding order.
+   */
+  public String[] getKeys() {
+    return this.keys;
+  }
+
+  /**
+   * The column names matching {@link #getKeys()}: the id of a vertex is written to "id".
+   */
+  public String[] getColumns() {
+    return this.columns;
+  }
+
+  public String toString() {
+    return "{ typeKey='" + this.typeKey +
+        "', idKey='" + this.idKey +
+        "', columns='" + String.join(",", this.columns) + "'}";
+  }
+}
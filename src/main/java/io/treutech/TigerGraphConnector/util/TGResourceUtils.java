@@ -15,7 +15,9 @@ package io.treutech.TigerGraphConnector.util;
 
 import io.treutech.TigerGraphConnector.source.ColumnConverter;
 import io.treutech.TigerGraphConnector.source.TGSourceConfig;
+import com.tigergraph.jdbc.Driver;
 
+import java.sql.Connection;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.*;
@@ -36,13 +38,36 @@ import org.slf4j.LoggerFactory;
 public final class TGResourceUtils {
   private static final Logger log = LoggerFactory.getLogger(TGResourceUtils.class);
 
+  /**
+   * Opens a JDBC connection to the configured graph, over https with the configured trust and key stores
+   * when SSL is enabled.
+   */
+  public static Connection connect(final TGBaseConfig config) throws SQLException {
+    final Properties properties = new Properties();
+    properties.put("username", config.tigergraph_username);
+    properties.put("password", config.tigergraph_password);
+    properties.put("graph", config.tigergraph_graph);
+    final StringBuilder sb = new StringBuilder();
+    if (config.tigergraph_ssl_enabled) {
+      properties.put("trustStore", config.ssl_truststore_path);
+      properties.put("trustStorePassword", config.ssl_truststore_password);
+      properties.put("trustStoreType", config.ssl_truststore_type);
+      properties.put("keyStore", config.ssl_keystore_path);
+      properties.put("keyStorePassword", config.ssl_keystore_password);
+      properties.put("keyStoreType", config.ssl_keystore_type);
+      sb.append("jdbc:tg:https://").append(config.tigergraph_ip).append(":").append(config.tigergraph_port);
+    } else {
+      sb.append("jdbc:tg:http://").append(config.tigergraph_ip).append(":").append(config.tigergraph_port);
+    }
+    return new Driver().connect(sb.toString(), properties);
+  }
+
   public static List<Pair<ColumnId, ColumnDefinition>> describeColumns(final ResultSetMetaData rsMetadata) {
-    final List<Pair<ColumnId, ColumnDefinition>> result = new ArrayList<>();
     int columnCount = 0;
     try {
       columnCount = rsMetadata.getColumnCount();
     } catch (SQLException ignored) {}
-
+    final List<Pair<ColumnId, ColumnDefinition>> result = new ArrayList<>(columnCount);
     for (int i = 1; i <= columnCount; ++i) {
       final ColumnDefinition def = describeColumn(rsMetadata, i);
       result.add(Pair.of(def.getId(), def));
@@ -50,26 +75,38 @@ public final class TGResourceUtils {
     return result;
   }
 
-  private static String emptyOnException(final Object o, final String method, final int column) {
+  private interface StringAttribute {
+    String read(ResultSetMetaData rsMetadata, int column) throws SQLException;
+  }
+
+  private interface IntAttribute {
+    int read(ResultSetMetaData rsMetadata, int column) throws SQLException;
+  }
+
+  private interface BooleanAttribute {
+    boolean read(ResultSetMetaData rsMetadata, int column) throws SQLException;
+  }
+
+  private static String emptyOnException(final ResultSetMetaData rsMetadata, final StringAttribute attribute, final int column) {
     try {
-      return (String) o.getClass().getMethod(method, int.class).invoke(o, column);
-    } catch (Exception e) {
+      return attribute.read(rsMetadata, column);
+    } catch (SQLException | UnsupportedOperationException e) {
       return "";
     }
   }
 
-  private static int zeroOnException(final Object o, final String method, final int column) {
+  private static int zeroOnException(final ResultSetMetaData rsMetadata, final IntAttribute attribute, final int column) {
     try {
-      return (int) o.getClass().getMethod(method, int.class).invoke(o, column);
-    } catch (Exception e) {
+      return attribute.read(rsMetadata, column);
+    } catch (SQLException | UnsupportedOperationException e) {
       return 0;
     }
   }
 
-  private static boolean falseOnException(final Object o, final String method, final int column) {
+  private static boolean falseOnException(final ResultSetMetaData rsMetadata, final BooleanAttribute attribute, final int column) {
     try {
-      return (boolean) o.getClass().getMethod(method, int.class).invoke(o, column);
-    } catch (Exception e) {
+      return attribute.read(rsMetadata, column);
+    } catch (SQLException | UnsupportedOperationException e) {
       return false;
     }
   }
@@ -77,26 +114,26 @@ public final class TGResourceUtils {
   public static ColumnDefinition describeColumn(final ResultSetMetaData rsMetadata, final int column) {
 
     final TableId tableId = new TableId(
-        emptyOnException(rsMetadata, "getCatalogName", column),
-        emptyOnException(rsMetadata, "getSchemaName", column),
-        emptyOnException(rsMetadata, "getTableName", column));
+        emptyOnException(rsMetadata, ResultSetMetaData::getCatalogName, column),
+        emptyOnException(rsMetadata, ResultSetMetaData::getSchemaName, column),
+        emptyOnException(rsMetadata, ResultSetMetaData::getTableName, column));
 
     final ColumnId id = new ColumnId(
         tableId,
-        emptyOnException(rsMetadata, "getColumnName", column),
-        emptyOnException(rsMetadata, "getColumnLabel", column));
+        emptyOnException(rsMetadata, ResultSetMetaData::getColumnName, column),
+        emptyOnException(rsMetadata, ResultSetMetaData::getColumnLabel, column));
 
     return new ColumnDefinition(
         id,
-        zeroOnException(rsMetadata, "getColumnType", column),
-        emptyOnException(rsMetadata, "getColumnTypeName", column),
-        emptyOnException(rsMetadata, "getColumnClassName", column),
-        zeroOnException(rsMetadata, "getPrecision", column),
-        zeroOnException(rsMetadata, "getScale", column),
-        zeroOnException(rsMetadata, "getColumnDisplaySize", column),
-        falseOnException(rsMetadata, "isAutoIncrement", column),
+        zeroOnException(rsMetadata, ResultSetMetaData::getColumnType, column),
+        emptyOnException(rsMetadata, ResultSetMetaData::getColumnTypeName, column),
+        emptyOnException(rsMetadata, ResultSetMetaData::getColumnClassName, column),
+        zeroOnException(rsMetadata, ResultSetMetaData::getPrecision, column),
+        zeroOnException(rsMetadata, ResultSetMetaData::getScale, column),
+        zeroOnException(rsMetadata, ResultSetMetaData::getColumnDisplaySize, column),
+        falseOnException(rsMetadata, ResultSetMetaData::isAutoIncrement, column),
         false,
-        falseOnException(rsMetadata, "isSigned", column));
+        falseOnException(rsMetadata, ResultSetMetaData::isSigned, column));
   }
 
   public static String addFieldToSchema(final ColumnDefinition columnDef, final SchemaBuilder builder) {
@@ -305,12 +342,13 @@ public final class TGResourceUtils {
       case 70:
         log.debug("SQL type 'DATALINK' not currently supported");
         return null;
+      // the driver implements none of the temporal getters, DATETIME values are read as the strings TigerGraph returns
       case 91:
-        return r -> r.getDate(col, Calendar.getInstance());
+        return r -> Temporals.parseDate(r.getString(col));
       case 92:
-        return r -> r.getTime(col, Calendar.getInstance());
+        return r -> Temporals.parseTime(r.getString(col));
       case 93:
-        return r -> r.getTimestamp(col, Calendar.getInstance());
+        return r -> Temporals.parseTimestamp(r.getString(col));
       case 2004:
         log.debug("SQL type 'BLOB' not currently supported");
         return null;
@@ -329,10 +367,10 @@ public final class TGResourceUtils {
   public static ColumnDefinition buildTableNameColumnDefinition(final ResultSetMetaData rsMetadata,
                                                                 final TGSourceConfig config){
     final TableId tableId = new TableId(
-        emptyOnException(rsMetadata, "getCatalogName", 1),
-        emptyOnException(rsMetadata, "getSchemaName", 1),
-        emptyOnException(rsMetadata, "getTableName", 1));
-    String name = emptyOnException(rsMetadata, "getColumnName", 1);
+        emptyOnException(rsMetadata, ResultSetMetaData::getCatalogName, 1),
+        emptyOnException(rsMetadata, ResultSetMetaData::getSchemaName, 1),
+        emptyOnException(rsMetadata, ResultSetMetaData::getTableName, 1));
+    String name = emptyOnException(rsMetadata, ResultSetMetaData::getColumnName, 1);
     final int position = name.indexOf(95);
     if (position > 0) {
       name = name.substring(0, position + 1) + config.tigergraph_type_name_key;
@@ -341,12 +379,12 @@ public final class TGResourceUtils {
     }
     return new ColumnDefinition(
         new ColumnId(tableId, name, name),
-        zeroOnException(rsMetadata, "getColumnType", 1),
-        emptyOnException(rsMetadata, "getColumnTypeName", 1),
-        emptyOnException(rsMetadata, "getColumnClassName", 1),
-        zeroOnException(rsMetadata, "getPrecision", 1),
-        zeroOnException(rsMetadata, "getScale", 1),
-        zeroOnException(rsMetadata, "getColumnDisplaySize", 1),
+        zeroOnException(rsMetadata, ResultSetMetaData::getColumnType, 1),
+        emptyOnException(rsMetadata, ResultSetMetaData::getColumnTypeName, 1),
+        emptyOnException(rsMetadata, ResultSetMetaData::getColumnClassName, 1),
+        zeroOnException(rsMetadata, ResultSetMetaData::getPrecision, 1),
+        zeroOnException(rsMetadata, ResultSetMetaData::getScale, 1),
+        zeroOnException(rsMetadata, ResultSetMetaData::getColumnDisplaySize, 1),
         false,
         false,
         false);
@@ -355,39 +393,40 @@ public final class TGResourceUtils {
   public static Pair<TableId, String> getTableDetails(final SinkRecord record, final String typeKeyName) {
     final Schema valueSchema = record.valueSchema();
     if (valueSchema != null) {
-      List<Field> fields = valueSchema.fields();
-      for (Field field : fields) {
-        final String name = field.name();
-        final int position = name.indexOf(95);
-        if (position > 0) {
-          final String typeName = name.substring(0, position);
-          String elementType = "vertex";
-          if (typeName.startsWith("e")) {
-            elementType = "edge";
-          }
-          if (name.endsWith("_" + typeKeyName)) {
-            return Pair.of(new TableId("", "", (String) ((Struct) record.value()).get(field)), elementType);
-          }
-        }
+      final Field typeField = getTypeField(valueSchema, typeKeyName);
+      if (typeField != null) {
+        return Pair.of(new TableId("", "", (String) ((Struct) record.value()).get(typeField)),
+            getElementType(typeField.name()));
       }
     } else {
-      final Map<String, String> values = new HashMap<>((Map<String, String>) record.value());
-      for (String key : values.keySet()) {
-        final int position = key.indexOf(95);
-        if (position > 0) {
-          final String typeName = key.substring(0, position);
-          String elementType = "vertex";
-          if (typeName.startsWith("e")) {
-            elementType = "edge";
-          }
-
-          if (key.endsWith("_" + typeKeyName)) {
-            return Pair.of(new TableId("", "",  values.get(key)), elementType);
-          }
+      final String suffix = "_" + typeKeyName;
+      for (final Map.Entry<?, ?> entry : ((Map<?, ?>) record.value()).entrySet()) {
+        final String key = String.valueOf(entry.getKey());
+        if (key.indexOf(95) > 0 && key.endsWith(suffix)) {
+          return Pair.of(new TableId("", "", (String) entry.getValue()), getElementType(key));
         }
       }
     }
 
     return Pair.of(new TableId("", "", ""), "");
   }
+
+  public static Field getTypeField(final Schema valueSchema, final String typeKeyName) {
+    final String suffix = "_" + typeKeyName;
+    for (final Field field : valueSchema.fields()) {
+      final String name = field.name();
+      if (name.indexOf(95) > 0 && name.endsWith(suffix)) {
+        return field;
+      }
+    }
+    return null;
+  }
+
+  public static String getElementType(final String typeFieldName) {
+    final String typeName = typeFieldName.substring(0, typeFieldName.indexOf(95));
+    if (typeName.startsWith("e")) {
+      return "edge";
+    }
+    return "vertex";
+  }
 }
@@ -0,0 +1,153 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.util;
+
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * The one place temporal values are converted between Connect and TigerGraph, always in UTC. TigerGraph
+ * takes and returns DATETIME values as {@code yyyy-MM-dd HH:mm:ss} strings, which are formatted here from the
+ * epoch millis and parsed back with plain arithmetic: no Calendar, no java.sql wrapper, only the resulting
+ * String or Date is allocated. Readers that need a Calendar share a per-thread UTC one instead of creating one per value.
+ */
+public final class Temporals {
+  private static final long MILLIS_PER_DAY = 86400000L;
+  private static final DateTimeFormatter DATETIME =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+  private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+  private static final ThreadLocal<Calendar> CALENDAR = ThreadLocal.withInitial(() -> Calendar.getInstance(UTC));
+  private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[19]);
+
+  private Temporals() {
+  }
+
+  public static String formatDateTime(final java.util.Date value) {
+    return formatDateTime(value.getTime());
+  }
+
+  public static String formatDateTime(final long epochMillis) {
+    final long days = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+    final int secondOfDay = (int) (Math.floorMod(epochMillis, MILLIS_PER_DAY) / 1000L);
+    // civil date from days since the epoch, see http://howardhinnant.github.io/date_algorithms.html
+    final long z = days + 719468L;
+    final long era = Math.floorDiv(z, 146097L);
+    final long dayOfEra = z - era * 146097L;
+    final long yearOfEra = (dayOfEra - dayOfEra / 1460L + dayOfEra / 36524L - dayOfEra / 146096L) / 365L;
+    final long dayOfYear = dayOfEra - (365L * yearOfEra + yearOfEra / 4L - yearOfEra / 100L);
+    final long shiftedMonth = (5L * dayOfYear + 2L) / 153L;
+    final int day = (int) (dayOfYear - (153L * shiftedMonth + 2L) / 5L + 1L);
+    final int month = (int) (shiftedMonth < 10L ? shiftedMonth + 3L : shiftedMonth - 9L);
+    final long year = yearOfEra + era * 400L + (month <= 2 ? 1L : 0L);
+    if (year < 0L || year > 9999L) {
+      return DATETIME.format(java.time.Instant.ofEpochMilli(epochMillis));
+    }
+    final char[] chars = BUFFER.get();
+    digits(chars, 0, (int) year, 4);
+    chars[4] = '-';
+    digits(chars, 5, month, 2);
+    chars[7] = '-';
+    digits(chars, 8, day, 2);
+    chars[10] = ' ';
+    digits(chars, 11, secondOfDay / 3600, 2);
+    chars[13] = ':';
+    digits(chars, 14, secondOfDay / 60 % 60, 2);
+    chars[16] = ':';
+    digits(chars, 17, secondOfDay % 60, 2);
+    return new String(chars);
+  }
+
+  /**
+   * A DATETIME string as a Connect {@code Date}: midnight UTC of its day. Null stays null.
+   */
+  public static java.util.Date parseDate(final String value) {
+    return value == null ? null : new java.util.Date(Math.floorDiv(parseDateTime(value), MILLIS_PER_DAY) * MILLIS_PER_DAY);
+  }
+
+  /**
+   * A DATETIME or {@code HH:mm:ss} string as a Connect {@code Time}: its time of day on 1970-01-01. Null stays null.
+   */
+  public static java.util.Date parseTime(final String value) {
+    return value == null ? null : new java.util.Date(Math.floorMod(parseDateTime(value), MILLIS_PER_DAY));
+  }
+
+  /**
+   * A DATETIME string as a Connect {@code Timestamp}. Null stays null.
+   */
+  public static java.util.Date parseTimestamp(final String value) {
+    return value == null ? null : new java.util.Date(parseDateTime(value));
+  }
+
+  /**
+   * Parses {@code yyyy-MM-dd HH:mm:ss}, {@code yyyy-MM-dd} or {@code HH:mm:ss} into epoch millis, the inverse
+   * of {@link #formatDateTime(long)}. Anything else, such as fractional seconds, goes through java.time.
+   */
+  public static long parseDateTime(final String value) {
+    final int length = value.length();
+    final boolean date = length >= 10 && value.charAt(4) == '-' && value.charAt(7) == '-';
+    final int time = date ? 11 : 0;
+    final boolean hasTime = length == time + 8 && (!date || value.charAt(10) == ' ' || value.charAt(10) == 'T')
+        && value.charAt(time + 2) == ':' && value.charAt(time + 5) == ':';
+    if (!hasTime && !(date && length == 10)) {
+      return java.time.LocalDateTime.parse(value.replace(' ', 'T')).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+    long millis = 0L;
+    if (date) {
+      millis = daysFromCivil(number(value, 0, 4), number(value, 5, 2), number(value, 8, 2)) * MILLIS_PER_DAY;
+    }
+    if (hasTime) {
+      millis += (number(value, time, 2) * 3600L + number(value, time + 3, 2) * 60L + number(value, time + 6, 2)) * 1000L;
+    }
+    return millis;
+  }
+
+  private static int number(final String value, final int offset, final int width) {
+    int number = 0;
+    for (int i = offset; i < offset + width; i++) {
+      final char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        throw new java.time.format.DateTimeParseException("Not a TigerGraph DATETIME", value, i);
+      }
+      number = number * 10 + (c - '0');
+    }
+    return number;
+  }
+
+  // days since the epoch of a civil date, the inverse of the conversion in formatDateTime
+  private static long daysFromCivil(final int year, final int month, final int day) {
+    final long y = month <= 2 ? year - 1L : year;
+    final long era = Math.floorDiv(y, 400L);
+    final long yearOfEra = y - era * 400L;
+    final long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2L) / 5L + day - 1L;
+    final long dayOfEra = yearOfEra * 365L + yearOfEra / 4L - yearOfEra / 100L + dayOfYear;
+    return era * 146097L + dayOfEra - 719468L;
+  }
+
+  private static void digits(final char[] chars, final int offset, int value, final int width) {
+    for (int i = offset + width - 1; i >= offset; i--) {
+      chars[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+  }
+
+  /**
+   * A UTC calendar owned by the calling thread, for JDBC getters that take one. It must not be kept.
+   */
+  public static Calendar utcCalendar() {
+    return CALENDAR.get();
+  }
+}
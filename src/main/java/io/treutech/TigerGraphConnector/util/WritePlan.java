@@ -0,0 +1,306 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.util;
+
+import io.treutech.TigerGraphConnector.sink.FieldBinder;
+import io.treutech.TigerGraphConnector.sink.FieldMetadata;
+import io.treutech.TigerGraphConnector.sink.PreparedStatementBinder;
+import io.treutech.TigerGraphConnector.sink.TGSinkConfig;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+/**
+ * Everything needed to write a record that only depends on its schemas and type name:
+ * the target table, the key/non-key fields resolved against the schemas together with a
+ * {@link FieldBinder} compiled for each of them, and the INSERT text.
+ */
+public final class WritePlan {
+  private final Schema keySchema;
+  private final Schema valueSchema;
+  private final Field typeField;
+  private final TableId tableId;
+  private final String elementType;
+  private final TGSinkConfig.PrimaryKeyMode pkMode;
+  private final FieldMetadata fieldMetadata;
+  private final FieldBinder keyBinder;
+  private final Field[] keyFields;
+  private final FieldBinder[] keyBinders;
+  private final Field[] nonKeyFields;
+  private final FieldBinder[] nonKeyBinders;
+  private final String[] columns;
+  private final SchemalessShape shape;
+  private final String sql;
+
+  public WritePlan(final Pair<Schema, Schema> schemaPair,
+                   final Field typeField,
+                   final Pair<TableId, String> tableDetails,
+                   final TGSinkConfig.PrimaryKeyMode pkMode,
+                   final FieldMetadata fieldMetadata,
+                   final String sql) {
+    this.keySchema = schemaPair.getLeft();
+    this.valueSchema = schemaPair.getRight();
+    this.typeField = typeField;
+    this.tableId = tableDetails.getLeft();
+    this.elementType = tableDetails.getRight();
+    this.pkMode = pkMode;
+    this.fieldMetadata = fieldMetadata;
+    this.shape = null;
+    this.sql = sql;
+    Schema keyFieldSchema = null;
+    FieldBinder keyBinder = null;
+    if (pkMode == TGSinkConfig.PrimaryKeyMode.RECORD_KEY) {
+      if (this.keySchema.type().isPrimitive()) {
+        keyBinder = PreparedStatementBinder.fieldBinder(this.keySchema);
+      } else {
+        keyFieldSchema = this.keySchema;
+      }
+    } else if (pkMode == TGSinkConfig.PrimaryKeyMode.RECORD_VALUE) {
+      keyFieldSchema = this.valueSchema;
+    }
+    this.keyBinder = keyBinder;
+    this.keyFields = resolve(keyFieldSchema, fieldMetadata.keyFieldNames);
+    this.keyBinders = compile(this.keyFields);
+    this.nonKeyFields = resolve(this.valueSchema, fieldMetadata.nonKeyFieldNames);
+    this.nonKeyBinders = compile(this.nonKeyFields);
+    this.columns = new String[fieldMetadata.keyFieldNames.size() + fieldMetadata.nonKeyFieldNames.size()];
+    int i = 0;
+    for (final String fieldName : fieldMetadata.keyFieldNames) {
+      this.columns[i++] = fieldName;
+    }
+    for (final String fieldName : fieldMetadata.nonKeyFieldNames) {
+      this.columns[i++] = fieldName.startsWith("v_") ? "id" : fieldName;
+    }
+  }
+
+  /**
+   * The plan of schemaless records of the given shape and type.
+   */
+  public WritePlan(final SchemalessShape shape,
+                   final Pair<TableId, String> tableDetails,
+                   final TGSinkConfig.PrimaryKeyMode pkMode,
+                   final FieldMetadata fieldMetadata,
+                   final String sql) {
+    this.keySchema = null;
+    this.valueSchema = null;
+    this.typeField = null;
+    this.tableId = tableDetails.getLeft();
+    this.elementType = tableDetails.getRight();
+    this.pkMode = pkMode;
+    this.fieldMetadata = fieldMetadata;
+    this.keyBinder = null;
+    this.keyFields = new Field[0];
+    this.keyBinders = new FieldBinder[0];
+    this.nonKeyFields = new Field[0];
+    this.nonKeyBinders = new FieldBinder[0];
+    this.columns = shape.getColumns();
+    this.shape = shape;
+    this.sql = sql;
+  }
+
+  private static Field[] resolve(final Schema schema, final Collection<String> fieldNames) {
+    if (schema == null) {
+      return new Field[0];
+    }
+    final Field[] fields = new Field[fieldNames.size()];
+    int i = 0;
+    for (final String fieldName : fieldNames) {
+      fields[i++] = schema.field(fieldName);
+    }
+    return fields;
+  }
+
+  private static FieldBinder[] compile(final Field[] fields) {
+    final FieldBinder[] binders = new FieldBinder[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      binders[i] = PreparedStatementBinder.fieldBinder(fields[i].schema());
+    }
+    return binders;
+  }
+
+  public Schema getKeySchema() {
+    return this.keySchema;
+  }
+
+  public Schema getValueSchema() {
+    return this.valueSchema;
+  }
+
+  public Field getTypeField() {
+    return this.typeField;
+  }
+
+  public TableId getTableId() {
+    return this.tableId;
+  }
+
+  public String getElementType() {
+    return this.elementType;
+  }
+
+  public FieldMetadata getFieldMetadata() {
+    return this.fieldMetadata;
+  }
+
+  /**
+   * The binder of a primitive record key, or null when the key is not bound as a whole.
+   */
+  public FieldBinder getKeyBinder() {
+    return this.keyBinder;
+  }
+
+  public Field[] getKeyFields() {
+    return this.keyFields;
+  }
+
+  public FieldBinder[] getKeyBinders() {
+    return this.keyBinders;
+  }
+
+  public Field[] getNonKeyFields() {
+    return this.nonKeyFields;
+  }
+
+  public FieldBinder[] getNonKeyBinders() {
+    return this.nonKeyBinders;
+  }
+
+  /**
+   * The shape of the schemaless records this plan writes, or null for struct records.
+   */
+  public SchemalessShape getShape() {
+    return this.shape;
+  }
+
+  /**
+   * The column names of the values bound for a record, in binding order.
+   */
+  public String[] getColumns() {
+    return this.columns;
+  }
+
+  /**
+   * The raw values of a record in binding order, matching {@link #getColumns()}.
+   */
+  public Object[] getValues(final SinkRecord record) {
+    final Object[] values = new Object[this.columns.length];
+    if (this.shape != null) {
+      final Map<?, ?> map = (Map<?, ?>) record.value();
+      final String[] keys = this.shape.getKeys();
+      for (int i = 0; i < keys.length; i++) {
+        values[i] = map.get(keys[i]);
+      }
+      return values;
+    }
+    int i = 0;
+    if (this.keyBinder != null) {
+      values[i++] = record.key();
+    } else if (this.keyFields.length > 0) {
+      final Struct struct = this.pkMode == TGSinkConfig.PrimaryKeyMode.RECORD_KEY ? (Struct) record.key() : (Struct) record.value();
+      for (final Field field : this.keyFields) {
+        values[i++] = struct.get(field);
+      }
+    }
+    final Struct valueStruct = (Struct) record.value();
+    for (final Field field : this.nonKeyFields) {
+      values[i++] = valueStruct.get(field);
+    }
+    return values;
+  }
+
+  /**
+   * A rough size in bytes of the values {@link #getValues(SinkRecord)} returns, without collecting them:
+   * strings count their UTF-8 length, byte arrays their length and any other value 8 bytes.
+   */
+  public long estimateBytes(final SinkRecord record) {
+    long bytes = 0L;
+    if (this.shape != null) {
+      final Map<?, ?> map = (Map<?, ?>) record.value();
+      for (final String key : this.shape.getKeys()) {
+        bytes += estimateBytes(map.get(key));
+      }
+      return bytes;
+    }
+    if (this.keyBinder != null) {
+      bytes += estimateBytes(record.key());
+    } else if (this.keyFields.length > 0) {
+      final Struct struct = this.pkMode == TGSinkConfig.PrimaryKeyMode.RECORD_KEY ? (Struct) record.key() : (Struct) record.value();
+      for (final Field field : this.keyFields) {
+        bytes += estimateBytes(struct.get(field));
+      }
+    }
+    final Struct valueStruct = (Struct) record.value();
+    for (final Field field : this.nonKeyFields) {
+      bytes += estimateBytes(valueStruct.get(field));
+    }
+    return bytes;
+  }
+
+  private static long estimateBytes(final Object value) {
+    if (value instanceof String) {
+      final String string = (String) value;
+      long bytes = string.length();
+      for (int i = 0; i < string.length(); i++) {
+        final char c = string.charAt(i);
+        if (c >= 0x800 && !Character.isSurrogate(c)) {
+          bytes += 2;
+        } else if (c >= 0x80) {
+          // two bytes, or half of a four byte surrogate pair
+          bytes += 1;
+        }
+      }
+      return bytes;
+    } else if (value instanceof byte[]) {
+      return ((byte[]) value).length;
+    }
+    return 8L;
+  }
+
+  public String getSql() {
+    return this.sql;
+  }
+
+  /**
+   * The value bound to the first INSERT column of the record: the vertex id, or the source vertex id of an edge.
+   */
+  public Object getPrimaryId(final SinkRecord record) {
+    if (this.shape != null) {
+      final String[] keys = this.shape.getKeys();
+      return keys.length > 0 ? ((Map<?, ?>) record.value()).get(keys[0]) : null;
+    }
+    if (this.keyBinder != null) {
+      return record.key();
+    }
+    if (this.keyFields.length > 0) {
+      final Struct struct = this.pkMode == TGSinkConfig.PrimaryKeyMode.RECORD_KEY ? (Struct) record.key() : (Struct) record.value();
+      return struct.get(this.keyFields[0]);
+    }
+    if (this.nonKeyFields.length > 0) {
+      return ((Struct) record.value()).get(this.nonKeyFields[0]);
+    }
+    return null;
+  }
+
+  public String toString() {
+    return "{ tableId='" + this.getTableId() +
+        "', elementType='" + this.getElementType() +
+        "', sql='" + this.getSql() + "'}";
+  }
+}
@@ -0,0 +1,164 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.util;
+
+import io.treutech.TigerGraphConnector.sink.TGSinkConfig;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.sink.SinkRecord;
+
+/**
+ * Bounded LRU cache of {@link WritePlan}s keyed by (value schema, key schema, type name). Schemaless records
+ * are keyed by the {@link SchemalessShape} of their key set instead of a value schema.
+ * Schemas are compared by identity: converters hand out the same Schema instance for an unchanged
+ * schema, and an evolved schema is a new instance, so it gets its own plan while the stale one ages out.
+ * Not thread safe: each task owns its own cache.
+ */
+public class WritePlanCache {
+  private final TGSinkConfig config;
+  private final Map<PlanKey, WritePlan> plans;
+  private final Map<Set<?>, SchemalessShape> shapes;
+  private WritePlan last;
+  private long hits;
+  private long misses;
+
+  public WritePlanCache(final TGSinkConfig config, final int maxSize) {
+    this.config = config;
+    this.plans = new LinkedHashMap<PlanKey, WritePlan>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<PlanKey, WritePlan> eldest) {
+        return this.size() > maxSize;
+      }
+    };
+    this.shapes = new LinkedHashMap<Set<?>, SchemalessShape>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Set<?>, SchemalessShape> eldest) {
+        return this.size() > maxSize;
+      }
+    };
+  }
+
+  public WritePlan get(final SinkRecord record) {
+    final Schema valueSchema = record.valueSchema();
+    if (valueSchema == null) {
+      return this.getSchemaless(record);
+    }
+    final Schema keySchema = record.keySchema();
+    final WritePlan last = this.last;
+    final Field typeField;
+    if (last != null && last.getValueSchema() == valueSchema) {
+      typeField = last.getTypeField();
+    } else {
+      typeField = TGResourceUtils.getTypeField(valueSchema, this.config.tigergraph_type_name_key);
+    }
+    final String typeName = typeField != null ? (String) ((Struct) record.value()).get(typeField) : "";
+    if (last != null && last.getValueSchema() == valueSchema && last.getKeySchema() == keySchema
+        && Objects.equals(last.getTableId().getTableName(), typeName)) {
+      this.hits++;
+      return last;
+    }
+    final PlanKey key = new PlanKey(valueSchema, keySchema, typeName);
+    WritePlan plan = this.plans.get(key);
+    if (plan == null) {
+      this.misses++;
+      plan = QueryBuilder.buildWritePlan(record, this.config);
+      this.plans.put(key, plan);
+    } else {
+      this.hits++;
+    }
+    this.last = plan;
+    return plan;
+  }
+
+  /**
+   * Looks the shape up by the record's key set without copying it, and the plan by shape and type name.
+   */
+  private WritePlan getSchemaless(final SinkRecord record) {
+    final Map<?, ?> values = (Map<?, ?>) record.value();
+    SchemalessShape shape = this.shapes.get(values.keySet());
+    if (shape == null) {
+      shape = SchemalessShape.classify(values.keySet(), this.config.tigergraph_type_name_key);
+      this.shapes.put(new HashSet<>(values.keySet()), shape);
+    }
+    final Object type = shape.getTypeKey() != null ? values.get(shape.getTypeKey()) : null;
+    final String typeName = type != null ? String.valueOf(type) : "";
+    final PlanKey key = new PlanKey(shape, record.keySchema(), typeName);
+    WritePlan plan = this.plans.get(key);
+    if (plan == null) {
+      this.misses++;
+      plan = QueryBuilder.buildWritePlan(shape, typeName, record.keySchema(), this.config);
+      this.plans.put(key, plan);
+    } else {
+      this.hits++;
+    }
+    return plan;
+  }
+
+  public int size() {
+    return this.plans.size();
+  }
+
+  public long getHits() {
+    return this.hits;
+  }
+
+  public long getMisses() {
+    return this.misses;
+  }
+
+  public String toString() {
+    return "{ size='" + this.size() +
+        "', hits='" + this.getHits() +
+        "', misses='" + this.getMisses() + "'}";
+  }
+
+  private static final class PlanKey {
+    private final Object valueSchema;
+    private final Schema keySchema;
+    private final String typeName;
+
+    /**
+     * @param valueSchema the value schema, or the {@link SchemalessShape} of a schemaless record
+     */
+    private PlanKey(final Object valueSchema, final Schema keySchema, final String typeName) {
+      this.valueSchema = valueSchema;
+      this.keySchema = keySchema;
+      this.typeName = typeName;
+    }
+
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof PlanKey)) {
+        return false;
+      }
+      final PlanKey other = (PlanKey) obj;
+      return this.valueSchema == other.valueSchema
+          && this.keySchema == other.keySchema
+          && Objects.equals(this.typeName, other.typeName);
+    }
+
+    public int hashCode() {
+      int result = System.identityHashCode(this.valueSchema);
+      result = 31 * result + System.identityHashCode(this.keySchema);
+      return 31 * result + Objects.hashCode(this.typeName);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AttributeHashCacheTest {
+  @Test
+  public void roundsTheCapacityUpToWholeSets() {
+    assertEquals(4, new AttributeHashCache(1).capacity());
+    assertEquals(8, new AttributeHashCache(8).capacity());
+    assertEquals(16, new AttributeHashCache(12).capacity());
+    assertEquals(1 << 20, new AttributeHashCache(1 << 20).capacity());
+  }
+
+  @Test
+  public void containsOnlyTheHashLastPut() {
+    final AttributeHashCache cache = new AttributeHashCache(1024);
+    assertFalse(cache.contains(42L, 7L));
+    cache.put(42L, 7L);
+    assertTrue(cache.contains(42L, 7L));
+    assertFalse(cache.contains(42L, 8L));
+    cache.put(42L, 8L);
+    assertTrue(cache.contains(42L, 8L));
+    assertFalse(cache.contains(42L, 7L));
+  }
+
+  @Test
+  public void storesKeyZero() {
+    final AttributeHashCache cache = new AttributeHashCache(1024);
+    assertFalse(cache.contains(0L, 0L));
+    cache.put(0L, 5L);
+    assertTrue(cache.contains(0L, 5L));
+  }
+
+  @Test
+  public void evictsTheLeastRecentlyUsedEntryOfAFullSet() {
+    // a single set of four entries
+    final AttributeHashCache cache = new AttributeHashCache(4);
+    for (long key = 1; key <= 4; key++) {
+      cache.put(key, key * 10);
+    }
+    assertTrue(cache.contains(1L, 10L));
+    cache.put(5L, 50L);
+
+    assertFalse(cache.contains(2L, 20L));
+    assertTrue(cache.contains(1L, 10L));
+    assertTrue(cache.contains(3L, 30L));
+    assertTrue(cache.contains(4L, 40L));
+    assertTrue(cache.contains(5L, 50L));
+  }
+
+  @Test
+  public void replacesAKeyInPlaceWithoutEvicting() {
+    final AttributeHashCache cache = new AttributeHashCache(4);
+    for (long key = 1; key <= 4; key++) {
+      cache.put(key, key * 10);
+    }
+    cache.put(1L, 11L);
+    for (long key = 2; key <= 4; key++) {
+      assertTrue(cache.contains(key, key * 10));
+    }
+    assertTrue(cache.contains(1L, 11L));
+  }
+}
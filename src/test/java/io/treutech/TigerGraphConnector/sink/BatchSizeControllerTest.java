@@ -0,0 +1,90 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class BatchSizeControllerTest {
+  private static final long MS = 1000000L;
+
+  @Test
+  public void keepsTheMaximumSizeWithoutATarget() {
+    final BatchSizeController controller = new BatchSizeController(500, 0);
+    assertEquals(500, controller.batchSize());
+    controller.record(1L, false);
+    controller.record(60000 * MS, true);
+    assertEquals(500, controller.batchSize());
+  }
+
+  @Test
+  public void growsByAStepAfterEveryWindowWithinTheTarget() {
+    final BatchSizeController controller = new BatchSizeController(500, 100);
+    assertEquals(62, controller.batchSize());
+    record(controller, 19, 50 * MS);
+    assertEquals(62, controller.batchSize());
+    controller.record(50 * MS, true);
+    assertEquals(72, controller.batchSize());
+  }
+
+  @Test
+  public void neverGrowsPastTheMaximum() {
+    final BatchSizeController controller = new BatchSizeController(100, 100);
+    record(controller, 20 * 100, 50 * MS);
+    assertEquals(100, controller.batchSize());
+  }
+
+  @Test
+  public void halvesWhenTheWindowP95MissesTheTarget() {
+    final BatchSizeController controller = new BatchSizeController(500, 100);
+    record(controller, 19, 50 * MS);
+    controller.record(150 * MS, true);
+    assertEquals(72, controller.batchSize());
+
+    record(controller, 18, 50 * MS);
+    record(controller, 2, 150 * MS);
+    assertEquals(36, controller.batchSize());
+  }
+
+  @Test
+  public void halvesOnSpikesAndFailedWritesDownToOne() {
+    final BatchSizeController controller = new BatchSizeController(500, 100);
+    controller.record(201 * MS, true);
+    assertEquals(31, controller.batchSize());
+    controller.record(1L, false);
+    assertEquals(15, controller.batchSize());
+    for (int i = 0; i < 10; i++) {
+      controller.record(1L, false);
+    }
+    assertEquals(1, controller.batchSize());
+  }
+
+  @Test
+  public void startsANewWindowAfterHalving() {
+    final BatchSizeController controller = new BatchSizeController(500, 100);
+    record(controller, 10, 50 * MS);
+    controller.record(1L, false);
+    record(controller, 19, 50 * MS);
+    assertEquals(31, controller.batchSize());
+    controller.record(50 * MS, true);
+    assertEquals(41, controller.batchSize());
+  }
+
+  private static void record(final BatchSizeController controller, final int batches, final long latencyNanos) {
+    for (int i = 0; i < batches; i++) {
+      controller.record(latencyNanos, true);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.treutech.TigerGraphConnector.sink;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.treutech.TigerGraphConnector.util.Query;
+import io.treutech.TigerGraphConnector.util.QueryBuilder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChangeDetectorTest {
+  private TGSinkConfig config;
+  private ChangeDetector changes;
+
+  @Before
+  public void createDetector() throws Exception {
+    final Map<String, String> props = new HashMap<>();
+    props.put("tigergraph.ip", "127.0.0.1");
+    props.put("tigergraph.port", "9000");
+    props.put("tigergraph.username", "tigergraph");
+    props.put("tigergraph.password", "tigergraph");
+    props.put("tigergraph.graph", "social");
+    this.config = new TGSinkConfig(props);
+    this.changes = new ChangeDetector(1024);
+  }
+
+  @Test
+  public void skipsAVertexWrittenWithTheSameAttributes() {
+    this.written(this.person("p1", "Ada"));
+
+    assertTrue(this.changes.isUnchanged(this.person("p1", "Ada"), new HashSet<>()));
+    assertEquals(1L, this.changes.getUnchanged());
+  }
+
+  @Test
+  public void writesAVertexWhoseAttributesChanged() {
+    this.written(this.person("p1", "Ada"));
+
+    assertFalse(this.changes.isUnchanged(this.person("p1", "Alan"), new HashSet<>()));
+    assertFalse(this.changes.isUnchanged(this.person("p2", "Ada"), new HashSet<>()));
+    assertEquals(0L, this.changes.getUnchanged());
+  }
+
+  @Test
+  public void remembersOnlyWritesThatSucceeded() {
+    assertFalse(this.changes.isUnchanged(this.person("p1", "Ada"), new HashSet<>()));
+
+    assertFalse(this.changes.isUnchanged(this.person("p1", "Ada"), new HashSet<>()));
+  }
+
+  @Test
+  public void neverSkipsAVertexPendingInTheSameBatch() {
+    this.written(this.person("p1", "Ada"));
+
+    final Set<Long> pending = new HashSet<>();
+    assertFalse(this.changes.isUnchanged(this.person("p1", "Alan"), pending));
+    // the cache still holds Ada, but the Alan before it is not written yet
+    assertFalse(this.changes.isUnchanged(this.person("p1", "Ada"), pending));
+  }
+
+  @Test
+  public void neverSkipsEdges() {
+    final Map<String, Object> value = new LinkedHashMap<>();
+    value.put("e_type", "knows");
+    value.put("from_id", "p1");
+    value.put("to_id", "p2");
+    final Query edge = this.query(value);
+    this.written(edge);
+
+    assertFalse(this.changes.isUnchanged(this.query(value), new HashSet<>()));
+  }
+
+  private void written(final Query query) {
+    assertFalse(this.changes.isUnchanged(query, new HashSet<>()));
+    this.changes.remember(Collections.singletonList(query));
+  }
+
+  private Query person(final String id, final String name) {
+    final Map<String, Object> value = new LinkedHashMap<>();
+    value.put("v_type", "person");
+    value.put("v_id", id);
+    value.put("name", name);
+    return this.query(value);
+  }
+
+  private Query query(final Map<String, Object> value) {
+    return QueryBuilder.generateQuery(new SinkRecord("graph", 0, null, null, null, value, 0L), this.config);
+  }
+}
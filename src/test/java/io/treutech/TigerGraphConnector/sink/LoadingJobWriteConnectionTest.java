@@ -0,0 +1,111 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.sink;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import io.treutech.TigerGraphConnector.util.Query;
+import io.treutech.TigerGraphConnector.util.QueryBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LoadingJobWriteConnectionTest {
+  private StubTigerGraph server;
+  private TGSinkConfig config;
+
+  @Before
+  public void startServer() throws Exception {
+    this.server = new StubTigerGraph();
+    final Map<String, String> props = new HashMap<>();
+    props.put("tigergraph.ip", "127.0.0.1");
+    props.put("tigergraph.port", String.valueOf(this.server.getPort()));
+    props.put("tigergraph.username", "tigergraph");
+    props.put("tigergraph.password", "tigergraph");
+    props.put("tigergraph.graph", "social");
+    props.put("tigergraph.sink.writer", "loading_job");
+    props.put("tigergraph.sink.loading.job", "load_people");
+    props.put("tigergraph.sink.loading.job.files", "person:people");
+    this.config = new TGSinkConfig(props);
+  }
+
+  @After
+  public void stopServer() {
+    this.server.close();
+  }
+
+  @Test
+  public void postsRecordsAsCsvLines() throws Exception {
+    this.server.setResponse(response(2, 0));
+    this.write(this.batch());
+
+    final StubTigerGraph.Request request = this.server.getRequests().get(0);
+    assertEquals("/restpp/ddl/social", request.path);
+    assertEquals("p1,36,Ada\np2,41,Alan\n", new String(request.body, StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void failsWhenTheJobRejectsLines() throws Exception {
+    this.server.setResponse(response(1, 1));
+    try {
+      this.write(this.batch());
+      fail("rejected lines were not reported");
+    } catch (SQLException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("rejected 1 of 2 lines"));
+    }
+  }
+
+  private List<Query> batch() {
+    final List<Query> batch = new ArrayList<>();
+    batch.add(this.query("p1", "Ada", 36));
+    batch.add(this.query("p2", "Alan", 41L));
+    return batch;
+  }
+
+  private void write(final List<Query> batch) throws SQLException {
+    final LoadingJobWriteConnection connection = new LoadingJobWriteConnection(this.config);
+    try {
+      connection.write(batch);
+    } finally {
+      connection.close();
+    }
+  }
+
+  private Query query(final String id, final String name, final Object age) {
+    final Map<String, Object> value = new LinkedHashMap<>();
+    value.put("v_type", "person");
+    value.put("v_id", id);
+    value.put("name", name);
+    value.put("age", age);
+    return QueryBuilder.generateQuery(new SinkRecord("graph", 0, null, null, null, value, 0L), this.config);
+  }
+
+  private static String response(final int valid, final int rejected) {
+    return "{\"error\":false,\"message\":\"\",\"results\":[{\"sourceFileName\":\"Online_POST\","
+        + "\"statistics\":{\"validLine\":" + valid + ",\"rejectLine\":" + rejected + "}}]}";
+  }
+}
@@ -0,0 +1,195 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.sink;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import io.treutech.TigerGraphConnector.util.Query;
+import io.treutech.TigerGraphConnector.util.QueryBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RestppWriteConnectionTest {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private StubTigerGraph server;
+
+  @Before
+  public void startServer() throws Exception {
+    this.server = new StubTigerGraph();
+  }
+
+  @After
+  public void stopServer() {
+    this.server.close();
+  }
+
+  @Test
+  public void mergesRepeatedVerticesAttributeByAttribute() throws Exception {
+    final TGSinkConfig config = this.config(new HashMap<>());
+    final List<Query> batch = new ArrayList<>();
+    batch.add(query(config, "v_type", "person", "v_id", "p1", "name", "Ada", "age", 36));
+    batch.add(query(config, "v_type", "person", "v_id", "p2", "name", "Alan"));
+    batch.add(query(config, "v_type", "person", "v_id", "p1", "age", 37));
+    this.write(config, batch);
+
+    final JsonNode person = this.lastUpsert().path("vertices").path("person");
+    assertEquals(2, person.size());
+    assertEquals("Ada", person.path("p1").path("name").path("value").asText());
+    assertEquals(37, person.path("p1").path("age").path("value").asInt());
+    assertEquals(1, person.path("p2").size());
+    assertEquals("Alan", person.path("p2").path("name").path("value").asText());
+  }
+
+  @Test
+  public void mergesRepeatedEdgesAttributeByAttribute() throws Exception {
+    final TGSinkConfig config = this.config(new HashMap<>());
+    final List<Query> batch = new ArrayList<>();
+    batch.add(query(config, "e_type", "visits", "person", "p1", "place", "t1", "weight", 0.5d, "times", 1));
+    batch.add(query(config, "e_type", "visits", "person", "p1", "place", "t1", "weight", 0.75d));
+    this.write(config, batch);
+
+    final JsonNode visits = this.lastUpsert().path("edges").path("person").path("p1").path("visits")
+        .path("place").path("t1");
+    assertEquals(2, visits.size());
+    assertEquals(0.75d, visits.path("weight").path("value").asDouble(), 0d);
+    assertEquals(1, visits.path("times").path("value").asInt());
+  }
+
+  @Test
+  public void writesSchemalessEdgesFromTheirIdKeys() throws Exception {
+    final TGSinkConfig config = this.config(new HashMap<>());
+    final List<Query> batch = new ArrayList<>();
+    batch.add(query(config, "e_type", "transfer", "from_id", "a1", "to_id", "a2", "amount", 10.5d));
+    this.write(config, batch);
+
+    final JsonNode transfer = this.lastUpsert().path("edges").path("from_id").path("a1").path("transfer")
+        .path("to_id").path("a2");
+    assertEquals(1, transfer.size());
+    assertEquals(10.5d, transfer.path("amount").path("value").asDouble(), 0d);
+  }
+
+  @Test
+  public void gzipsBodiesFromTheThreshold() throws Exception {
+    final byte[] plain = this.uncompressedBody();
+    final Map<String, String> props = new HashMap<>();
+    props.put("tigergraph.sink.compression", "gzip");
+    props.put("tigergraph.sink.compression.min.bytes", String.valueOf(plain.length));
+    final TGSinkConfig config = this.config(props);
+    this.write(config, batch(config));
+
+    final StubTigerGraph.Request request = this.lastRequest();
+    assertEquals("gzip", request.contentEncoding);
+    assertArrayEquals(plain, gunzip(request.body));
+  }
+
+  @Test
+  public void sendsBodiesBelowTheThresholdUncompressed() throws Exception {
+    final byte[] plain = this.uncompressedBody();
+    final Map<String, String> props = new HashMap<>();
+    props.put("tigergraph.sink.compression", "gzip");
+    props.put("tigergraph.sink.compression.min.bytes", String.valueOf(plain.length + 1));
+    final TGSinkConfig config = this.config(props);
+    this.write(config, batch(config));
+
+    final StubTigerGraph.Request request = this.lastRequest();
+    assertNull(request.contentEncoding);
+    assertArrayEquals(plain, request.body);
+  }
+
+  private byte[] uncompressedBody() throws Exception {
+    final TGSinkConfig config = this.config(new HashMap<>());
+    this.write(config, batch(config));
+    final StubTigerGraph.Request request = this.lastRequest();
+    assertNull(request.contentEncoding);
+    return request.body;
+  }
+
+  private static List<Query> batch(final TGSinkConfig config) {
+    final List<Query> batch = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      batch.add(query(config, "v_type", "person", "v_id", "p" + i, "name", "Person " + i, "age", 20 + i % 50));
+    }
+    batch.add(query(config, "e_type", "visits", "person", "p1", "place", "t1", "weight", 0.5d));
+    return batch;
+  }
+
+  private TGSinkConfig config(final Map<String, String> props) throws Exception {
+    props.put("tigergraph.ip", "127.0.0.1");
+    props.put("tigergraph.port", String.valueOf(this.server.getPort()));
+    props.put("tigergraph.username", "tigergraph");
+    props.put("tigergraph.password", "tigergraph");
+    props.put("tigergraph.graph", "social");
+    props.put("tigergraph.sink.writer", "restpp");
+    return new TGSinkConfig(props);
+  }
+
+  private void write(final TGSinkConfig config, final List<Query> batch) throws Exception {
+    final RestppWriteConnection connection = new RestppWriteConnection(config);
+    try {
+      connection.write(batch);
+    } finally {
+      connection.close();
+    }
+  }
+
+  private StubTigerGraph.Request lastRequest() {
+    final List<StubTigerGraph.Request> requests = this.server.getRequests();
+    final StubTigerGraph.Request request = requests.get(requests.size() - 1);
+    assertEquals("/restpp/graph/social", request.path);
+    return request;
+  }
+
+  private JsonNode lastUpsert() throws Exception {
+    return MAPPER.readTree(this.lastRequest().body);
+  }
+
+  private static byte[] gunzip(final byte[] body) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      final byte[] buffer = new byte[8192];
+      int n;
+      while ((n = in.read(buffer)) != -1) {
+        out.write(buffer, 0, n);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static Query query(final TGSinkConfig config, final Object... keyValues) {
+    final Map<String, Object> value = new LinkedHashMap<>();
+    for (int i = 0; i < keyValues.length; i += 2) {
+      value.put((String) keyValues[i], keyValues[i + 1]);
+    }
+    return QueryBuilder.generateQuery(new SinkRecord("graph", 0, null, null, null, value, 0L), config);
+  }
+}
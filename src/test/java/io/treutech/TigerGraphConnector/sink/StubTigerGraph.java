@@ -0,0 +1,98 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.sink;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A TigerGraph stand-in for the writer tests: hands out a token and answers every other request with
+ * {@code response}, keeping each request's path, Content-Encoding and body as they came over the wire.
+ */
+class StubTigerGraph implements AutoCloseable {
+  private final HttpServer server;
+  private final List<Request> requests = new CopyOnWriteArrayList<>();
+  private volatile String response = "{\"error\":false,\"message\":\"\",\"results\":[]}";
+
+  StubTigerGraph() throws IOException {
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    this.server.createContext("/gsqlserver/gsql/authtoken",
+        exchange -> respond(exchange, "{\"error\":false,\"message\":\"\",\"token\":\"stub-token\"}"));
+    this.server.createContext("/restpp/", exchange -> {
+      this.requests.add(new Request(exchange.getRequestURI().getPath(),
+          exchange.getRequestHeaders().getFirst("Content-Encoding"), read(exchange.getRequestBody())));
+      respond(exchange, this.response);
+    });
+    this.server.start();
+  }
+
+  int getPort() {
+    return this.server.getAddress().getPort();
+  }
+
+  List<Request> getRequests() {
+    return this.requests;
+  }
+
+  void setResponse(final String response) {
+    this.response = response;
+  }
+
+  @Override
+  public void close() {
+    this.server.stop(0);
+  }
+
+  private static void respond(final HttpExchange exchange, final String response) throws IOException {
+    final byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  private static byte[] read(final InputStream in) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    int n;
+    while ((n = in.read(buffer)) != -1) {
+      out.write(buffer, 0, n);
+    }
+    return out.toByteArray();
+  }
+
+  static final class Request {
+    final String path;
+    final String contentEncoding;
+    final byte[] body;
+
+    private Request(final String path, final String contentEncoding, final byte[] body) {
+      this.path = path;
+      this.contentEncoding = contentEncoding;
+      this.body = body;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package io.treutech.TigerGraphConnector.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class TemporalsTest {
+  @Test
+  public void parsesWhatItFormats() {
+    for (final long millis : new long[] {0L, 86399000L, 951782400000L, 1650000000000L, 253402300799000L}) {
+      assertEquals(millis, Temporals.parseDateTime(Temporals.formatDateTime(millis)));
+    }
+  }
+
+  @Test
+  public void parsesConnectTemporals() {
+    assertEquals(1649980800000L, Temporals.parseDate("2022-04-15 05:20:00").getTime());
+    assertEquals(19200000L, Temporals.parseTime("2022-04-15 05:20:00").getTime());
+    assertEquals(19200000L, Temporals.parseTime("05:20:00").getTime());
+    assertEquals(1650000000500L, Temporals.parseTimestamp("2022-04-15 05:20:00.5").getTime());
+    assertNull(Temporals.parseTimestamp(null));
+  }
+}